@@ -3,8 +3,10 @@ package com.Dev_learning_Platform.Dev_learning_Platform.config;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -38,6 +40,40 @@ public class GlobalExceptionHandler {
     }
 
 
+    /**
+     * Edición concurrente: otro cambio se guardó desde la versión que tenía el cliente.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        log.info("Conflicto de versión en: {}", request.getDescription(false));
+
+        ErrorResponseDto errorResponse = ErrorResponseDto.simple(
+                "CONFLICT",
+                "El recurso fue modificado por otra petición; recárgalo y vuelve a intentarlo",
+                request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * Rol insuficiente (p. ej. {@code @PreAuthorize}): 403, no debe acabar en el manejador genérico.
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponseDto> handleAccessDenied(
+            AccessDeniedException ex, WebRequest request) {
+
+        log.info("Acceso denegado en: {}", request.getDescription(false));
+
+        ErrorResponseDto errorResponse = ErrorResponseDto.simple(
+                "FORBIDDEN",
+                "No tienes permisos para realizar esta operación",
+                request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleGenericException(
             Exception ex, WebRequest request) {
@@ -0,0 +1,88 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envía las transacciones {@code @Transactional(readOnly = true)} a la réplica y el resto al primario.
+ * Debe envolverse en un {@code LazyConnectionDataSourceProxy}: la conexión real se pide en la primera
+ * sentencia, cuando la transacción ya está marcada como de solo lectura.
+ *
+ * <p>Lectura de las propias escrituras: cuando un usuario autenticado ejecuta una transacción de escritura,
+ * sus lecturas siguientes van al primario durante {@code pinAfterWriteMillis}, para que no vea datos
+ * anteriores a su cambio por el retraso de replicación.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final int SWEEP_EVERY_PINS = 1024;
+
+    private final long pinAfterWriteNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final AtomicLong pins = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long pinAfterWriteMillis) {
+        this.pinAfterWriteNanos = pinAfterWriteMillis * 1_000_000L;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+
+    public Route currentRoute() {
+        String user = currentUser();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return user != null && isPinned(user) ? Route.PRIMARY : Route.REPLICA;
+        }
+        if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            pin(user);
+        }
+        return Route.PRIMARY;
+    }
+
+    private void pin(String user) {
+        pinnedUntil.put(user, System.nanoTime() + pinAfterWriteNanos);
+        if (pins.incrementAndGet() % SWEEP_EVERY_PINS == 0) {
+            long now = System.nanoTime();
+            pinnedUntil.values().removeIf(until -> until - now < 0);
+        }
+    }
+
+    private boolean isPinned(String user) {
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            pinnedUntil.remove(user, until);
+            return false;
+        }
+        return true;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
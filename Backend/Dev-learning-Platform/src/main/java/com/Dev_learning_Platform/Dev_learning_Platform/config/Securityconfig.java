@@ -79,6 +79,7 @@ public class Securityconfig {
                 .requestMatchers("/api/users/register").permitAll() // Registro público  
                 .requestMatchers("/api/courses").permitAll() // Catálogo público
                 .requestMatchers("/api/courses/{id}").permitAll() // Detalle público de curso
+                .requestMatchers("/api/thumbnails/**").permitAll() // Miniaturas de videos (<img> sin token)
 
                 // ✅ Herramientas de desarrollo
                 .requestMatchers("/h2-console/**").permitAll()      // H2 para desarrollo
@@ -0,0 +1,100 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.controllers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.services.ReportExportService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.ReportExportService.Format;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exportaciones en streaming para administración (finanzas, auditoría).
+ * {@code format} acepta {@code csv} o {@code ndjson}; {@code from}/{@code to} filtran por fecha (to inclusive).
+ */
+@RestController
+@RequestMapping("/api/admin/exports")
+@RequiredArgsConstructor
+public class AdminExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final ReportExportService exportService;
+
+    @GetMapping("/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "csv") String format) {
+        Format parsed;
+        try {
+            parsed = Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return stream("usuarios", parsed, output -> exportService.exportUsers(parsed, output));
+    }
+
+    @GetMapping("/enrollments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Format parsed;
+        try {
+            parsed = Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime start = start(from);
+        LocalDateTime end = end(to);
+        return stream("inscripciones", parsed, output -> exportService.exportEnrollments(start, end, parsed, output));
+    }
+
+    @GetMapping("/payments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Format parsed;
+        try {
+            parsed = Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime start = start(from);
+        LocalDateTime end = end(to);
+        return stream("pagos", parsed, output -> exportService.exportPayments(start, end, parsed, output));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(String name, Format format, StreamingResponseBody body) {
+        String extension = format == Format.CSV ? "csv" : "ndjson";
+        String filename = name + "-" + LocalDate.now() + "." + extension;
+        return ResponseEntity.ok()
+                .contentType(format == Format.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private static LocalDateTime start(LocalDate from) {
+        return from != null ? from.atStartOfDay() : LocalDate.of(1970, 1, 1).atStartOfDay();
+    }
+
+    private static LocalDateTime end(LocalDate to) {
+        return (to != null ? to : LocalDate.now()).plusDays(1).atStartOfDay();
+    }
+}
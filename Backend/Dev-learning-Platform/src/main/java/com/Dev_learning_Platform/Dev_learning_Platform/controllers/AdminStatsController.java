@@ -1,8 +1,17 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.controllers;
 
+import java.time.LocalDate;
+import java.util.List;
+
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.AdminStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.CategoryDistributionDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.StatsSeriesPointDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.UniqueViewersDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.StatsRollup.Granularity;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.AdminStatsService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.AdminStatsSnapshotService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -16,10 +25,64 @@ import org.springframework.web.bind.annotation.*;
 public class AdminStatsController {
 
     private final AdminStatsService adminStatsService;
+    private final AdminStatsSnapshotService snapshotService;
 
+    /**
+     * Devuelve la última foto de estadísticas ({@code generatedAt} indica cuándo se calculó).
+     * Con {@code fresh=true} se recalcula, con un límite de frecuencia compartido entre administradores.
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<AdminStatsDto> getAdminStats() {
-        return ResponseEntity.ok(adminStatsService.getAllStats());
+    public ResponseEntity<AdminStatsDto> getAdminStats(@RequestParam(defaultValue = "false") boolean fresh) {
+        return ResponseEntity.ok(snapshotService.getSnapshot(fresh));
+    }
+
+    /**
+     * Serie temporal (DAY, WEEK o MONTH) de altas, inscripciones, finalizaciones e ingresos.
+     * Por defecto devuelve los últimos 12 meses agrupados por mes.
+     */
+    @GetMapping("/series")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<StatsSeriesPointDto>> getSeries(
+            @RequestParam(defaultValue = "MONTH") Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusMonths(12);
+        try {
+            return ResponseEntity.ok(adminStatsService.getSeries(granularity, start, end, categoryId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Distribución de cursos, inscripciones y alumnos por categoría.
+     */
+    @GetMapping("/categories")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CategoryDistributionDto> getCategoryDistribution() {
+        return ResponseEntity.ok(adminStatsService.getCategoryDistribution());
+    }
+
+    /**
+     * Alumnos distintos (aproximados) de un curso o de una categoría en [from, to].
+     * Por defecto, los últimos 30 días.
+     */
+    @GetMapping("/unique-viewers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UniqueViewersDto> getUniqueViewers(
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        try {
+            return ResponseEntity.ok(adminStatsService.getUniqueViewers(courseId, categoryId, start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
@@ -7,6 +7,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +21,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,10 +29,14 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.CourseCreateDto;
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.CoursePublicDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.EnrollmentSuspensionProgressDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.instructor.InstructorAnalyticsDto;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.EnrollmentSuspensionService;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.FileUploadService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.InstructorAnalyticsService;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.UserService;
 
 import jakarta.validation.Valid;
@@ -46,6 +52,8 @@ public class CourseController {
     private final CourseService courseService;
     private final UserService userService;
     private final FileUploadService fileUploadService;
+    private final EnrollmentSuspensionService enrollmentSuspensionService;
+    private final InstructorAnalyticsService instructorAnalyticsService;
 
     /**
      * Sube una imagen de portada para un curso (Object Storage OCI)
@@ -117,6 +125,8 @@ public class CourseController {
             dto.setIsPublished(course.getIsPublished());
             dto.setIsActive(course.getIsActive());
             dto.setEstimatedHours(course.getEstimatedHours());
+            dto.setLessonCount(course.getActiveLessonCount());
+            dto.setTotalDurationSeconds(course.getTotalDurationSeconds());
             return dto;
         });
         return ResponseEntity.ok(dtoPage);
@@ -125,7 +135,7 @@ public class CourseController {
     @GetMapping("/{id}")
     public ResponseEntity<Course> getCourseById(@PathVariable Long id) {
         Course course = courseService.findById(id);
-        return ResponseEntity.ok(course);
+        return ResponseEntity.ok().eTag(EntityVersionHeaders.etag(course.getVersion())).body(course);
     }
 
     @GetMapping("/instructor/{instructorId}")
@@ -145,11 +155,28 @@ public class CourseController {
             dto.setIsPublished(course.getIsPublished());
             dto.setIsActive(course.getIsActive());
             dto.setEstimatedHours(course.getEstimatedHours());
+            dto.setLessonCount(course.getActiveLessonCount());
+            dto.setTotalDurationSeconds(course.getTotalDurationSeconds());
             return dto;
     }).toList();
     return ResponseEntity.ok(dtos);
 }
 
+    /**
+     * Analíticas de los cursos del instructor: alumnos activos, tasa de finalización, progreso medio,
+     * ingresos y tendencia diaria de inscripciones. Solo el propio instructor o un administrador.
+     */
+    @GetMapping("/instructor/{instructorId}/analytics")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('INSTRUCTOR')")
+    public ResponseEntity<InstructorAnalyticsDto> getInstructorAnalytics(@PathVariable Long instructorId) {
+        try {
+            User authenticatedUser = userService.getAuthenticatedUser();
+            return ResponseEntity.ok(instructorAnalyticsService.getAnalytics(instructorId, authenticatedUser));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
     @GetMapping("/admin/active")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Course>> getAllActiveCourses() {
@@ -195,13 +222,24 @@ public class CourseController {
         }
     }
 
+    /**
+     * Con {@code If-Match: "<version>"} la edición solo se aplica si el curso sigue en esa versión
+     * (409 si otro cambio se guardó antes). La respuesta lleva la versión nueva en el {@code ETag}.
+     */
     @PutMapping("/{courseId}")
     @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
     public ResponseEntity<Course> updateCourse(
             @PathVariable Long courseId,
-            @Valid @RequestBody CourseCreateDto courseDto) {
-        Course updatedCourse = courseService.updateCourse(courseId, courseDto);
-        return ResponseEntity.ok(updatedCourse);
+            @Valid @RequestBody CourseCreateDto courseDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = EntityVersionHeaders.parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Course updatedCourse = courseService.updateCourseAtVersion(courseId, courseDto, expectedVersion);
+        return ResponseEntity.ok().eTag(EntityVersionHeaders.etag(updatedCourse.getVersion())).body(updatedCourse);
     }
 
     @DeleteMapping("/{courseId}")
@@ -222,6 +260,26 @@ public class CourseController {
         }
     }
 
+    @GetMapping("/{courseId}/enrollments/suspension")
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<EnrollmentSuspensionProgressDto> getEnrollmentSuspensionProgress(@PathVariable Long courseId) {
+        try {
+            Course course = courseService.findById(courseId);
+            User authenticatedUser = userService.getAuthenticatedUser();
+            boolean isAdmin = authenticatedUser.getRole() == User.Role.ADMIN;
+            boolean isOwner = course.getInstructor() != null
+                    && course.getInstructor().getId().equals(authenticatedUser.getId());
+            if (!isAdmin && !isOwner) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return enrollmentSuspensionService.getSuspensionProgress(courseId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PatchMapping("/{courseId}/publish")
     @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
     public ResponseEntity<Course> togglePublishStatus(@PathVariable Long courseId) {
@@ -1,22 +1,35 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.controllers;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.CourseVideoDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.CourseSyllabusDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.LessonDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.SyllabusVideoDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.VideoImportRequestDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.VideoImportResultDto;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseSyllabusService;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseVideoService;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.UserService;
 import lombok.RequiredArgsConstructor;
@@ -27,7 +40,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CourseVideoController {
 
+    // Respuesta por usuario (depende de su acceso al curso): solo en la caché del navegador
+    private static final CacheControl LESSON_CACHE = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePrivate();
+
     private final CourseVideoService courseVideoService;
+    private final CourseSyllabusService courseSyllabusService;
     private final UserService userService;
 
     /**
@@ -74,29 +91,116 @@ public class CourseVideoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(video);
     }
 
+    /**
+     * Videos activos del curso en orden, desde el temario cacheado. El ETag cambia con la versión de
+     * contenido del curso; con {@code If-None-Match} coincidente se responde 304 sin cuerpo.
+     */
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<CourseVideo>> getVideosByCourse(@PathVariable Long courseId) {
+    public ResponseEntity<List<SyllabusVideoDto>> getVideosByCourse(@PathVariable Long courseId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Long userId = null;
+        String email = null;
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            email = userDetails.getUsername();
+        }
 
-        if (authentication != null && authentication.isAuthenticated()) {
-            userId = getUserIdFromAuthentication(authentication);
+        CourseSyllabusDto syllabus;
+        try {
+            syllabus = courseSyllabusService.getSyllabus(courseId, email);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        List<CourseVideo> videos = courseVideoService.getVideosByCourse(courseId, userId);
-        return ResponseEntity.ok(videos);
+        String etag = "\"" + courseId + "-" + syllabus.getContentVersion() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(syllabus.getVideos());
+    }
+
+    /**
+     * Lección con su posición y las lecciones anterior y siguiente, desde el temario cacheado (mismo
+     * control de acceso que el listado). La cabecera {@code Link} sugiere precargar la siguiente lección
+     * y su miniatura, así el paso de una lección a otra se resuelve con una sola petición cacheada.
+     */
+    @GetMapping("/course/{courseId}/lessons/{videoId}")
+    public ResponseEntity<LessonDto> getLesson(@PathVariable Long courseId, @PathVariable Long videoId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = null;
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            email = userDetails.getUsername();
+        }
+
+        LessonDto lesson;
+        try {
+            lesson = courseSyllabusService.getLesson(courseId, videoId, email);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        String etag = "\"" + courseId + "-" + lesson.getContentVersion() + "-" + videoId + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(LESSON_CACHE).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(LESSON_CACHE);
+        SyllabusVideoDto next = lesson.getNext();
+        if (next != null) {
+            List<String> links = new ArrayList<>();
+            links.add("</api/course-videos/course/" + courseId + "/lessons/" + next.getId() + ">; rel=prefetch");
+            if (next.getThumbnailUrl() != null) {
+                links.add("<" + next.getThumbnailUrl() + ">; rel=prefetch; as=image");
+            }
+            response.header(HttpHeaders.LINK, String.join(", ", links));
+        }
+        return response.body(lesson);
     }
 
     @GetMapping("/{videoId}")
     public ResponseEntity<CourseVideo> getVideoById(@PathVariable Long videoId) {
         CourseVideo video = courseVideoService.getVideoById(videoId);
-        return ResponseEntity.ok(video);
+        return ResponseEntity.ok().eTag(EntityVersionHeaders.etag(video.getVersion())).body(video);
     }
 
+    /**
+     * Edición del video; con {@code If-Match: "<version>"} solo se aplica si sigue en esa versión
+     * (409 si otro cambio se guardó antes).
+     */
     @PutMapping("/{videoId}")
     @PreAuthorize("hasRole('INSTRUCTOR')")
     public ResponseEntity<CourseVideo> updateVideo(@PathVariable Long videoId,
-            @RequestBody CourseVideoDto videoDto) {
+            @RequestBody CourseVideoDto videoDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long instructorId = getUserIdFromAuthentication(authentication);
+
+        if (instructorId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        Long expectedVersion;
+        try {
+            expectedVersion = EntityVersionHeaders.parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        CourseVideo video = courseVideoService.updateVideo(videoId, videoDto, instructorId, expectedVersion);
+        return ResponseEntity.ok().eTag(EntityVersionHeaders.etag(video.getVersion())).body(video);
+    }
+
+    /**
+     * Edición parcial (solo los campos enviados) condicionada a la versión: {@code If-Match} es obligatorio
+     * (428 si falta) y se responde 409 si el video cambió desde esa versión.
+     */
+    @PatchMapping("/{videoId}")
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<CourseVideo> patchVideo(@PathVariable Long videoId,
+            @RequestBody CourseVideoDto videoDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         Long instructorId = getUserIdFromAuthentication(authentication);
 
@@ -104,8 +208,23 @@ public class CourseVideoController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        CourseVideo video = courseVideoService.updateVideo(videoId, videoDto, instructorId);
-        return ResponseEntity.ok(video);
+        Long expectedVersion;
+        try {
+            expectedVersion = EntityVersionHeaders.parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (expectedVersion == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        try {
+            CourseVideo video = courseVideoService.updateVideo(videoId, videoDto, instructorId, expectedVersion);
+            return ResponseEntity.ok().eTag(EntityVersionHeaders.etag(video.getVersion())).body(video);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
     }
 
     @DeleteMapping("/{videoId}")
@@ -122,6 +241,25 @@ public class CourseVideoController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/{videoId}/reactivate")
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<CourseVideo> reactivateVideo(@PathVariable Long videoId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long instructorId = getUserIdFromAuthentication(authentication);
+
+        if (instructorId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        try {
+            return ResponseEntity.ok(courseVideoService.reactivateVideo(videoId, instructorId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
     @PutMapping("/course/{courseId}/reorder")
     @PreAuthorize("hasRole('INSTRUCTOR')")
     public ResponseEntity<Void> reorderVideos(@PathVariable Long courseId,
@@ -133,10 +271,45 @@ public class CourseVideoController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        courseVideoService.reorderVideos(courseId, videoIds, instructorId);
+        try {
+            courseVideoService.reorderVideos(courseId, videoIds, instructorId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Importación masiva desde un manifiesto ordenado (título, URL de YouTube, duración). Si alguna
+     * lección no es válida no se importa ninguna y se responde 400 con los errores por posición.
+     */
+    @PostMapping("/course/{courseId}/import")
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<VideoImportResultDto> importVideos(@PathVariable Long courseId,
+            @RequestBody VideoImportRequestDto request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long instructorId = getUserIdFromAuthentication(authentication);
+
+        if (instructorId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        VideoImportResultDto result;
+        try {
+            result = courseVideoService.importVideos(courseId, request.getVideos(), instructorId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!result.getErrors().isEmpty()) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
     @GetMapping("/course/{courseId}/can-manage")
     @PreAuthorize("hasRole('INSTRUCTOR')")
     public ResponseEntity<Boolean> canManageVideos(@PathVariable Long courseId) {
@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -16,9 +17,12 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.BulkEnrollmentService;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.EnrollmentService;
+import jakarta.servlet.http.HttpServletRequest;
 
 
 @RestController
@@ -31,6 +35,9 @@ public class EnrollmentController {
     @Autowired
     private com.Dev_learning_Platform.Dev_learning_Platform.services.UserService userService;
 
+    @Autowired
+    private BulkEnrollmentService bulkEnrollmentService;
+
     @PostMapping
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> enrollInCourse(@RequestBody EnrollmentRequest request,
@@ -229,6 +236,33 @@ public class EnrollmentController {
         }
     }
 
+    /**
+     * Inscribe una cohorte de estudiantes a partir de un CSV (primera columna = email)
+     * o de un array JSON de emails. La respuesta es NDJSON: una línea por fila procesada
+     * y una última línea con el resumen.
+     */
+    @PostMapping(value = "/bulk/course/{courseId}",
+            consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> bulkEnroll(@PathVariable Long courseId, HttpServletRequest request,
+            Authentication authentication) {
+        try {
+            com.Dev_learning_Platform.Dev_learning_Platform.models.User requester =
+                    userService.findByEmail(authentication.getName());
+            bulkEnrollmentService.validateCohortEnrollment(courseId, requester);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse(e.getMessage()));
+        }
+
+        boolean json = MediaType.APPLICATION_JSON
+                .isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        StreamingResponseBody body = output -> bulkEnrollmentService
+                .enrollCohort(courseId, request.getInputStream(), json, output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Object[]>> getEnrollmentStats() {
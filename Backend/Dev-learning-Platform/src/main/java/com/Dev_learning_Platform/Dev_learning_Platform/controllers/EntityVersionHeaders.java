@@ -0,0 +1,39 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.controllers;
+
+/**
+ * Versión de bloqueo optimista en cabeceras HTTP: {@code ETag: "<version>"} en las respuestas y
+ * {@code If-Match} con esa misma versión en las ediciones.
+ */
+final class EntityVersionHeaders {
+
+    private EntityVersionHeaders() {
+    }
+
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Versión pedida en {@code If-Match}: acepta {@code "3"}, {@code W/"3"} o {@code 3}. Null si la cabecera
+     * falta o es {@code *} (cualquier versión).
+     *
+     * @throws IllegalArgumentException si no es una versión
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match debe contener la versión del recurso");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.services.thumbnails.VideoThumbnailService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.thumbnails.VideoThumbnailService.Size;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Miniaturas de videos servidas desde la caché en disco, con caché larga en el navegador.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/thumbnails")
+@RequiredArgsConstructor
+public class VideoThumbnailController {
+
+    // Atributos de Tomcat para enviar el fichero con sendfile, sin copiarlo por el heap
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Un reintento basta: el fichero recién descargado es el más reciente y el último que se recorta
+    private static final int MAX_ATTEMPTS = 2;
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic();
+
+    private final VideoThumbnailService thumbnailService;
+
+    /**
+     * Miniatura del video de YouTube en SMALL (320 px), MEDIUM (640 px) o LARGE (1280 px) de ancho.
+     * 404 si ningún video de la plataforma usa el id o YouTube no tiene miniatura; 502 si no se pudo
+     * descargar o hay demasiadas descargas en curso.
+     */
+    @GetMapping("/{youtubeVideoId}")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable String youtubeVideoId,
+            @RequestParam(defaultValue = "MEDIUM") Size size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
+        boolean sendfile = Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+        Path file;
+        BasicFileAttributes attributes;
+        String etag;
+        InputStream body = null;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                Optional<Path> thumbnail = thumbnailService.getThumbnail(youtubeVideoId, size);
+                if (thumbnail.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                file = thumbnail.get();
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    etag = "\"" + youtubeVideoId + "-" + size.name() + "-"
+                            + attributes.lastModifiedTime().toMillis() + "\"";
+                    if (!sendfile && !etag.equals(ifNoneMatch)) {
+                        // Abierto aquí, el contenido sigue legible aunque el recorte borre el fichero después
+                        body = Files.newInputStream(file);
+                    }
+                    break;
+                } catch (NoSuchFileException e) {
+                    // El recorte de la caché lo borró después de encontrarlo: es un fallo de caché, se vuelve a pedir
+                    if (attempt == MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.warn("No se pudo obtener la miniatura {}: {}", youtubeVideoId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL).build();
+        }
+
+        long length = attributes.size();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .contentLength(length)
+                .lastModified(attributes.lastModifiedTime().toMillis())
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL);
+        if (sendfile) {
+            // Tomcat abre el fichero por nombre justo después; lo recién servido es lo último que se recorta
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return response.build();
+        }
+        return response.body(new InputStreamResource(body));
+    }
+}
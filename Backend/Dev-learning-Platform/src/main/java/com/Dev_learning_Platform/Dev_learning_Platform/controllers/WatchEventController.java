@@ -0,0 +1,77 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.controllers;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.WatchHeartbeatBatchDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.instructor.VideoWatchCurveDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.UserService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.watch.WatchTimeService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Latidos de reproducción enviados por el reproductor y curvas de abandono para el instructor.
+ */
+@RestController
+@RequiredArgsConstructor
+public class WatchEventController {
+
+    private final WatchTimeService watchTimeService;
+    private final UserService userService;
+
+    /**
+     * Lote de latidos del alumno. Se responde 202 en cuanto se suman en memoria; el volcado a base de
+     * datos es periódico. Los latidos inválidos o de cursos sin acceso se descartan sin error.
+     */
+    @PostMapping("/api/watch-events")
+    public ResponseEntity<Map<String, Integer>> recordWatchEvents(@RequestBody WatchHeartbeatBatchDto batch) {
+        String email = currentEmail();
+        if (email == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            int accepted = watchTimeService.recordHeartbeats(email, batch.getEvents());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("accepted", accepted));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/api/course-videos/{videoId}/watch-curve")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<VideoWatchCurveDto> getWatchCurve(@PathVariable Long videoId) {
+        String email = currentEmail();
+        User user = email != null ? userService.findByEmail(email) : null;
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(watchTimeService.getCurve(videoId, user));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    private static String currentEmail() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        return null;
+    }
+}
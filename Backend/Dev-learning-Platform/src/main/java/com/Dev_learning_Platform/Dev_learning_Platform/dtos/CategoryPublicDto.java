@@ -18,6 +18,7 @@ public class CategoryPublicDto implements Serializable {
     private Boolean isActive;
     private Integer sortOrder;
     private List<SubcategoryPublicDto> subcategories;
+    private Long courseCount; // Cursos activos y publicados
 
     @Data
     @NoArgsConstructor
@@ -13,6 +13,9 @@ public class CoursePublicDto {
     private Boolean isPublished;
     private Boolean isActive;
     private Integer estimatedHours;
+    // Precalculados a partir de los videos activos
+    private Integer lessonCount;
+    private Long totalDurationSeconds;
 
     // Getters y setters
     public Long getId() { return id; }
@@ -35,4 +38,8 @@ public class CoursePublicDto {
     public void setIsActive(Boolean isActive) { this.isActive = isActive; }
     public Integer getEstimatedHours() { return estimatedHours; }
     public void setEstimatedHours(Integer estimatedHours) { this.estimatedHours = estimatedHours; }
+    public Integer getLessonCount() { return lessonCount; }
+    public void setLessonCount(Integer lessonCount) { this.lessonCount = lessonCount; }
+    public Long getTotalDurationSeconds() { return totalDurationSeconds; }
+    public void setTotalDurationSeconds(Long totalDurationSeconds) { this.totalDurationSeconds = totalDurationSeconds; }
 }
@@ -0,0 +1,33 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progreso de la suspensión masiva de inscripciones de un curso desactivado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentSuspensionProgressDto {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private Long courseId;
+    private Status status;
+    private Long totalEnrollments;
+    private Long processedEnrollments;
+    private Double percentage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String errorMessage;
+}
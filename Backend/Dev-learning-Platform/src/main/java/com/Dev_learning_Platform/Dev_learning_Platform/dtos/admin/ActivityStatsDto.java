@@ -0,0 +1,25 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para alumnos activos (valores aproximados con HyperLogLog, error típico ~1 %)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityStatsDto {
+
+    private Long dailyActiveUsers;
+    private Long monthlyActiveUsers;     // Últimos 30 días, hoy incluido
+    private Double dauMauRatio;          // Porcentaje DAU / MAU
+    private LocalDate trendStartDate;
+    private List<Long> dailyActiveTrend; // Un valor por día desde trendStartDate
+}
@@ -1,5 +1,9 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,4 +20,12 @@ public class AdminStatsDto {
     private RevenueStatsDto revenueStats;
     private CategoryDistributionDto categoryDistribution;
     private GrowthStatsDto growthStats;
+    private ActivityStatsDto activityStats;
+
+    // Latencia de cada sección en milisegundos y secciones omitidas por timeout o error
+    private Map<String, Long> sectionLatenciesMs;
+    private List<String> incompleteSections;
+
+    // Momento en que se calculó la foto servida
+    private LocalDateTime generatedAt;
 }
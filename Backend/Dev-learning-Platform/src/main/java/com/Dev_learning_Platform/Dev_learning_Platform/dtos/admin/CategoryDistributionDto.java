@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -13,4 +14,5 @@ import java.util.Map;
 public class CategoryDistributionDto {
     private Map<String, Long> coursesByCategory;
     private Map<String, Long> enrollmentsByCategory;
+    private List<CategoryStatsDto> categories;
 }
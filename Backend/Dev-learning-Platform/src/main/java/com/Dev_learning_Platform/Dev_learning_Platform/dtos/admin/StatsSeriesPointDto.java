@@ -0,0 +1,25 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Punto de una serie temporal de métricas (un bucket diario, semanal o mensual)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsSeriesPointDto {
+    private LocalDate bucketStart;
+    private Long newUsers;
+    private Long newEnrollments;
+    private Long completions;
+    private BigDecimal revenue;
+    private Long transactions;
+}
@@ -0,0 +1,26 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para alumnos distintos de un curso o una categoría en un rango de días (aproximado)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UniqueViewersDto {
+
+    private String scope;                // COURSE o CATEGORY
+    private Long scopeId;
+    private LocalDate from;
+    private LocalDate to;
+    private Long uniqueViewers;          // Distintos en todo el rango
+    private List<Long> dailyViewers;     // Distintos por día desde from
+}
@@ -0,0 +1,18 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Temario inmutable de un curso: sus videos activos en orden y la versión de contenido
+ * con la que se leyeron.
+ */
+@Getter
+@AllArgsConstructor
+public class CourseSyllabusDto {
+    private final Long courseId;
+    private final Long contentVersion;
+    private final List<SyllabusVideoDto> videos;
+}
@@ -0,0 +1,21 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Página de lección: el video, su posición en el temario y las lecciones vecinas, para que el cliente
+ * pase a la siguiente sin otra consulta. {@code previous} y {@code next} son null en los extremos.
+ */
+@Getter
+@AllArgsConstructor
+public class LessonDto {
+    private final Long courseId;
+    private final Long contentVersion;
+    // Posición de la lección (desde 1) y total de lecciones activas
+    private final int position;
+    private final int totalLessons;
+    private final SyllabusVideoDto video;
+    private final SyllabusVideoDto previous;
+    private final SyllabusVideoDto next;
+}
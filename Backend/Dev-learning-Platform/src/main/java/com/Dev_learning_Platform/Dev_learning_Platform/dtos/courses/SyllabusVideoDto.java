@@ -0,0 +1,22 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Lección del temario (proyección JPQL, sin cargar la entidad). Mantiene los campos públicos
+ * de {@code CourseVideo} para no cambiar la respuesta del listado de videos.
+ */
+@Getter
+@AllArgsConstructor
+public class SyllabusVideoDto {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String youtubeUrl;
+    private final String youtubeVideoId;
+    private final Integer orderIndex;
+    private final Integer durationSeconds;
+    private final String thumbnailUrl;
+    private final Boolean isActive;
+}
@@ -0,0 +1,15 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Error de validación de una lección del manifiesto ({@code index} empieza en 0)
+ */
+@Getter
+@AllArgsConstructor
+public class VideoImportErrorDto {
+    private final int index;
+    private final String youtubeUrl;
+    private final String message;
+}
@@ -0,0 +1,16 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Lección del manifiesto de importación. El orden de la lista es el orden de las lecciones.
+ */
+@Getter
+@Setter
+public class VideoImportItemDto {
+    private String title;
+    private String description;
+    private String youtubeUrl;
+    private Integer durationSeconds;
+}
@@ -0,0 +1,15 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Manifiesto de importación masiva de videos (p. ej. una playlist de YouTube exportada)
+ */
+@Getter
+@Setter
+public class VideoImportRequestDto {
+    private List<VideoImportItemDto> videos;
+}
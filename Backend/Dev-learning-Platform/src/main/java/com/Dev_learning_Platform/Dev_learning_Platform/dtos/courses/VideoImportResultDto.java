@@ -0,0 +1,19 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de la importación. Si hay errores no se importa nada y {@code imported} es 0.
+ */
+@Getter
+@AllArgsConstructor
+public class VideoImportResultDto {
+    private final Long courseId;
+    private final int imported;
+    private final Integer firstOrderIndex;
+    private final Integer lastOrderIndex;
+    private final List<VideoImportErrorDto> errors;
+}
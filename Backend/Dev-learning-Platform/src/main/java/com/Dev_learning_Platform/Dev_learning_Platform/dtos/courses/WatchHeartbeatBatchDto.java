@@ -0,0 +1,15 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Latidos acumulados por el reproductor y enviados juntos
+ */
+@Getter
+@Setter
+public class WatchHeartbeatBatchDto {
+    private List<WatchHeartbeatDto> events;
+}
@@ -0,0 +1,14 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Latido del reproductor: el alumno está viendo el video en el segundo {@code offsetSeconds}.
+ */
+@Getter
+@Setter
+public class WatchHeartbeatDto {
+    private Long videoId;
+    private Integer offsetSeconds;
+}
@@ -0,0 +1,17 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.enrollments;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea NDJSON emitida cuando la entrada deja de poder leerse a mitad de la carga. Las filas anteriores
+ * ya se aplicaron; a continuación sigue el resumen.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentErrorDto {
+    private long row;       // Fila que no se pudo leer (la última procesada + 1)
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.enrollments;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una fila de la inscripción masiva (una línea NDJSON por fila de entrada).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentRowResultDto {
+
+    public enum Status {
+        ENROLLED,           // Inscripción creada
+        ALREADY_ENROLLED,   // Ya existía la inscripción
+        USER_NOT_FOUND,     // No existe usuario con ese email
+        NOT_A_STUDENT,      // El usuario no tiene rol STUDENT
+        INVALID_EMAIL       // Fila vacía o sin formato de email
+    }
+
+    private long row;
+    private String email;
+    private Status status;
+}
@@ -0,0 +1,21 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.enrollments;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumen final de la inscripción masiva, emitido como última línea de la respuesta.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentSummaryDto {
+    private Long courseId;
+    private Long totalRows;
+    private Long enrolled;
+    private Long alreadyEnrolled;
+    private Long failed;
+}
@@ -0,0 +1,25 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports;
+
+import java.time.LocalDateTime;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Fila de la exportación de inscripciones (proyección JPQL, sin cargar la entidad)
+ */
+@Getter
+@AllArgsConstructor
+public class EnrollmentExportRow {
+    private Long id;
+    private Long studentId;
+    private String studentEmail;
+    private Long courseId;
+    private String courseTitle;
+    private EnrollmentStatus status;
+    private Integer progressPercentage;
+    private LocalDateTime enrolledAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,26 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Fila de la exportación de pagos (proyección JPQL, sin cargar la entidad)
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentExportRow {
+    private Long id;
+    private Long userId;
+    private String userEmail;
+    private Long courseId;
+    private String courseTitle;
+    private BigDecimal amount;
+    private Payment.Status status;
+    private String stripePaymentId;
+    private LocalDateTime createdAt;
+}
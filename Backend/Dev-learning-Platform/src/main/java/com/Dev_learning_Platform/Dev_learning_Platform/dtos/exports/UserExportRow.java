@@ -0,0 +1,23 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports;
+
+import java.sql.Timestamp;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Fila de la exportación de usuarios (proyección JPQL, sin cargar la entidad)
+ */
+@Getter
+@AllArgsConstructor
+public class UserExportRow {
+    private Long id;
+    private String userName;
+    private String lastName;
+    private String email;
+    private User.Role role;
+    private boolean active;
+    private Timestamp createdAt;
+}
@@ -0,0 +1,30 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.instructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Métricas de participación de un curso para el panel del instructor
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseAnalyticsDto {
+    private Long courseId;
+    private String title;
+    private Boolean isPublished;
+    private Long totalEnrollments;
+    private Long activeStudents;
+    private Long completedEnrollments;
+    private Double completionRate;   // Porcentaje de inscripciones completadas
+    private Double averageProgress;  // Progreso medio de las inscripciones activas
+    private BigDecimal revenue;
+    private Long transactions;
+    private List<Long> enrollmentTrend; // Inscripciones por día, del más antiguo a hoy
+}
@@ -0,0 +1,31 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.instructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Panel de analíticas de un instructor: totales y detalle por curso
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstructorAnalyticsDto {
+    private Long instructorId;
+    private Long totalCourses;
+    private Long totalEnrollments;
+    private Long activeStudents;
+    private Double completionRate;
+    private BigDecimal totalRevenue;
+    private LocalDate trendStartDate;    // Primer día de las series enrollmentTrend
+    private List<Long> enrollmentTrend;  // Suma diaria de todos los cursos
+    private List<CourseAnalyticsDto> courses;
+    private LocalDateTime generatedAt;
+}
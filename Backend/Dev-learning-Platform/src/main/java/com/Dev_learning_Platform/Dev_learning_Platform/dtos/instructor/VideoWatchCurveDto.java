@@ -0,0 +1,32 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.dtos.instructor;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Curva de abandono de una lección: latidos de reproducción por tramo de segundos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VideoWatchCurveDto {
+    private Long videoId;
+    private Long courseId;
+    private Integer durationSeconds;
+    private Integer bucketSeconds;
+    private List<Point> points;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private Integer startSecond;
+        private Long heartbeats;
+        private Double retention;   // Porcentaje respecto al tramo inicial (o al más visto si el inicial está vacío)
+    }
+}
@@ -0,0 +1,15 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento publicado cuando un alumno avanza en un curso (actualización de progreso).
+ */
+@Getter
+@RequiredArgsConstructor
+public class CourseActivityEvent {
+
+    private final Long studentId;
+    private final Long courseId;
+}
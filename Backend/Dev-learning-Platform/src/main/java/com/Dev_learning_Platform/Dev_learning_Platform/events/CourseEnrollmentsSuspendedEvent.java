@@ -0,0 +1,16 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento publicado una sola vez por curso cuando terminan de suspenderse sus inscripciones.
+ * Permite invalidar cachés y resúmenes del curso sin reaccionar fila por fila.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CourseEnrollmentsSuspendedEvent {
+
+    private final Long courseId;
+    private final long suspendedEnrollments;
+}
@@ -0,0 +1,27 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.events;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento publicado cuando un curso se crea, cambia de estado (activo/publicado), de instructor o se elimina.
+ * {@code before} es null para cursos nuevos y {@code after} es null para cursos eliminados.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CourseStateChangedEvent {
+
+    private final Long courseId;
+    private final State before;
+    private final State after;
+
+    public record State(boolean active, boolean published, Long instructorId) {
+
+        public static State of(Course course) {
+            return new State(Boolean.TRUE.equals(course.getIsActive()), Boolean.TRUE.equals(course.getIsPublished()),
+                    course.getInstructor() != null ? course.getInstructor().getId() : null);
+        }
+    }
+}
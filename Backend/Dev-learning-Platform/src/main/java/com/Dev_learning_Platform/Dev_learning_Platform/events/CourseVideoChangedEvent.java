@@ -0,0 +1,17 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento publicado al agregar, modificar, dar de baja o reactivar videos de un curso, con las variaciones
+ * en número de lecciones activas y en duración total.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CourseVideoChangedEvent {
+
+    private final Long courseId;
+    private final int lessonsDelta;
+    private final long durationSecondsDelta;
+}
@@ -0,0 +1,35 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.events;
+
+import java.time.LocalDateTime;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent.EventType;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento de inscripción ya confirmado en base de datos, publicado por el despachador del outbox.
+ * Los listeners (certificados, estadísticas, notificaciones) se ejecutan fuera de la petición
+ * y deben ser idempotentes: un evento puede entregarse más de una vez si falla el marcado.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EnrollmentLifecycleEvent {
+
+    private final Long outboxId;
+    private final EventType type;
+    private final Long enrollmentId;
+    private final Long studentId;
+    private final Long courseId;
+    private final Integer progressPercentage;
+    private final EnrollmentStatus previousStatus;
+    private final LocalDateTime occurredAt;
+
+    public static EnrollmentLifecycleEvent from(EnrollmentOutboxEvent event) {
+        return new EnrollmentLifecycleEvent(event.getId(), event.getEventType(), event.getEnrollmentId(),
+                event.getStudentId(), event.getCourseId(), event.getProgressPercentage(), event.getPreviousStatus(),
+                event.getCreatedAt());
+    }
+}
@@ -0,0 +1,15 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento publicado cuando se crean inscripciones nuevas en un curso (una o un lote completo).
+ */
+@Getter
+@RequiredArgsConstructor
+public class EnrollmentsCreatedEvent {
+
+    private final Long courseId;
+    private final long count;
+}
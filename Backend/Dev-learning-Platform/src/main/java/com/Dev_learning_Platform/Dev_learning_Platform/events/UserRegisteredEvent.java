@@ -0,0 +1,18 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.events;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento publicado al registrar un nuevo usuario.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserRegisteredEvent {
+
+    private final Long userId;
+    private final User.Role role;
+    private final boolean active;
+}
@@ -3,6 +3,7 @@ package com.Dev_learning_Platform.Dev_learning_Platform.middlewares;
 import java.io.IOException;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.Dev_learning_Platform.Dev_learning_Platform.services.CustomUserDetailsService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.activity.ActivitySketchService;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.auth.JwtService;
 
 import io.jsonwebtoken.JwtException;
@@ -26,8 +28,11 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STUDENT_AUTHORITY = "ROLE_STUDENT";
+
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final ActivitySketchService activitySketchService;
 
    
     @Override
@@ -68,6 +73,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    recordActivity(userDetails);
                     
                     log.debug("Usuario autenticado exitosamente: {}", userEmail);
                 } else {
@@ -81,4 +87,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Alumnos activos (DAU/MAU); solo actualiza un sketch en memoria
+    private void recordActivity(UserDetails userDetails) {
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            if (STUDENT_AUTHORITY.equals(authority.getAuthority())) {
+                activitySketchService.recordActiveStudent(userDetails.getUsername());
+                return;
+            }
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.models;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Sketch HyperLogLog de usuarios distintos de un día, para toda la plataforma o para un curso.
+ * Las métricas de la plataforma se guardan con {@link #PLATFORM_SCOPE_ID}.
+ */
+@Entity
+@Table(name = "activity_sketches",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"scope", "scope_id", "activity_day"}))
+@Getter
+@Setter
+public class ActivitySketch {
+
+    public static final long PLATFORM_SCOPE_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 10)
+    private Scope scope;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Column(name = "activity_day", nullable = false)
+    private LocalDate day;
+
+    @Lob
+    @Column(name = "registers", nullable = false, columnDefinition = "BLOB")
+    private byte[] registers;
+
+    public enum Scope {
+        PLATFORM,   // Alumnos autenticados (peticiones con JWT)
+        COURSE      // Alumnos que avanzan en el curso
+    }
+}
@@ -23,6 +23,7 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -85,6 +86,26 @@ public class Course {
     @Column(name = "estimated_hours")
     private Integer estimatedHours;
 
+    // Bloqueo optimista: una edición con una versión anterior falla en vez de pisar la última
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
+    // Versión del temario: sube con cada alta, edición, baja o reordenación de videos.
+    // Solo la cambian UPDATE atómicos, así que guardar el curso nunca la reescribe
+    @Column(name = "content_version", nullable = false, updatable = false)
+    private Long contentVersion = 0L;
+
+    // Agregados de los videos activos, ajustados en la misma transacción que cada cambio del temario
+    @Column(name = "active_lesson_count", nullable = false, updatable = false)
+    private Integer activeLessonCount = 0;
+
+    @Column(name = "total_duration_seconds", nullable = false, updatable = false)
+    private Long totalDurationSeconds = 0L;
+
+    @Column(name = "longest_lesson_seconds", nullable = false, updatable = false)
+    private Integer longestLessonSeconds = 0;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
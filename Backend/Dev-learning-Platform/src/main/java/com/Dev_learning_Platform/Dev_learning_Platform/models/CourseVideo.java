@@ -1,14 +1,18 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.models;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -17,7 +21,15 @@ import lombok.Setter;
  * Cada video representa una lección específica del curso.
  */
 @Entity
-@Table(name = "course_videos")
+@Table(name = "course_videos",
+       indexes = {
+           // Temario: course_id + is_active ORDER BY order_index, sin leer las filas dadas de baja
+           @Index(name = "idx_course_videos_course_active_order", columnList = "course_id, is_active, order_index"),
+           // Purga de videos dados de baja hace tiempo
+           @Index(name = "idx_course_videos_active_deactivated", columnList = "is_active, deactivated_at"),
+           // Miniaturas: solo se descargan ids de YouTube que usa algún video
+           @Index(name = "idx_course_videos_youtube_video_id", columnList = "youtube_video_id")
+       })
 @Getter
 @Setter
 public class CourseVideo {
@@ -49,36 +61,149 @@ public class CourseVideo {
     
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
+
+    // Momento de la baja; la purga archiva los videos inactivos más antiguos que la retención
+    @Column(name = "deactivated_at")
+    private LocalDateTime deactivatedAt;
+
+    // Bloqueo optimista: sube con cada edición y con cada reordenación por lotes
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
     
+    private static final int VIDEO_ID_LENGTH = 11;
+    private static final String[] HOST_PREFIXES = {"www.", "m.", "music."};
+    private static final String[] ID_PATHS = {"/embed/", "/shorts/", "/live/", "/v/", "/e/"};
+
+    /**
+     * Extrae el id (11 caracteres de {@code [A-Za-z0-9_-]}) de una URL de YouTube, o null si no es válida.
+     * Recorre la URL una sola vez comparando por posición, sin crear subcadenas intermedias.
+     *
+     * <p>Formatos: {@code youtube.com/watch?...v=ID} (con {@code v} en cualquier posición),
+     * {@code youtu.be/ID}, {@code /embed/}, {@code /shorts/}, {@code /live/}, {@code /v/} y {@code /e/}, con o sin
+     * esquema, en {@code www.}, {@code m.}, {@code music.} y {@code youtube-nocookie.com}.
+     */
     public static String extractVideoId(String youtubeUrl) {
-        if (youtubeUrl == null || youtubeUrl.trim().isEmpty()) {
+        if (youtubeUrl == null) {
+            return null;
+        }
+        int start = 0;
+        int end = youtubeUrl.length();
+        while (start < end && youtubeUrl.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && youtubeUrl.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int pos = start;
+        if (matches(youtubeUrl, pos, end, "https://")) {
+            pos += 8;
+        } else if (matches(youtubeUrl, pos, end, "http://")) {
+            pos += 7;
+        } else if (matches(youtubeUrl, pos, end, "//")) {
+            pos += 2;
+        }
+
+        int hostEnd = pos;
+        while (hostEnd < end && !isDelimiter(youtubeUrl.charAt(hostEnd))) {
+            hostEnd++;
+        }
+        for (String prefix : HOST_PREFIXES) {
+            if (matches(youtubeUrl, pos, hostEnd, prefix)) {
+                pos += prefix.length();
+                break;
+            }
+        }
+
+        if (isHost(youtubeUrl, pos, hostEnd, "youtu.be")) {
+            return hostEnd < end && youtubeUrl.charAt(hostEnd) == '/'
+                    ? readVideoId(youtubeUrl, hostEnd + 1, end)
+                    : null;
+        }
+        if (!isHost(youtubeUrl, pos, hostEnd, "youtube.com") && !isHost(youtubeUrl, pos, hostEnd, "youtube-nocookie.com")) {
             return null;
         }
-        
-        String videoId = null;
-        
-        // Patrones comunes de URLs de YouTube
-        if (youtubeUrl.contains("youtube.com/watch?v=")) {
-            videoId = youtubeUrl.substring(youtubeUrl.indexOf("v=") + 2);
-            if (videoId.contains("&")) {
-                videoId = videoId.substring(0, videoId.indexOf("&"));
+
+        if (matches(youtubeUrl, hostEnd, end, "/watch")) {
+            int query = hostEnd + 6;
+            if (query < end && youtubeUrl.charAt(query) == '/') {
+                query++;
+            }
+            return query < end && youtubeUrl.charAt(query) == '?' ? readQueryVideoId(youtubeUrl, query + 1, end) : null;
+        }
+        for (String path : ID_PATHS) {
+            if (matches(youtubeUrl, hostEnd, end, path)) {
+                return readVideoId(youtubeUrl, hostEnd + path.length(), end);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indica si el texto es un id de video de YouTube: 11 caracteres de {@code [A-Za-z0-9_-]}.
+     */
+    public static boolean isValidVideoId(String youtubeVideoId) {
+        if (youtubeVideoId == null || youtubeVideoId.length() != VIDEO_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < VIDEO_ID_LENGTH; i++) {
+            if (!isVideoIdChar(youtubeVideoId.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Busca el parámetro v= entre los de la query, hasta el fragmento
+    private static String readQueryVideoId(String url, int pos, int end) {
+        while (pos < end && url.charAt(pos) != '#') {
+            if (matches(url, pos, end, "v=")) {
+                return readVideoId(url, pos + 2, end);
             }
-        } else if (youtubeUrl.contains("youtu.be/")) {
-            videoId = youtubeUrl.substring(youtubeUrl.indexOf("youtu.be/") + 9);
-            if (videoId.contains("?")) {
-                videoId = videoId.substring(0, videoId.indexOf("?"));
+            while (pos < end && url.charAt(pos) != '&' && url.charAt(pos) != '#') {
+                pos++;
             }
-        } else if (youtubeUrl.contains("youtube.com/embed/")) {
-            videoId = youtubeUrl.substring(youtubeUrl.indexOf("embed/") + 6);
-            if (videoId.contains("?")) {
-                videoId = videoId.substring(0, videoId.indexOf("?"));
+            if (pos < end && url.charAt(pos) == '&') {
+                pos++;
+            }
+        }
+        return null;
+    }
+
+    private static String readVideoId(String url, int pos, int end) {
+        int idEnd = pos + VIDEO_ID_LENGTH;
+        if (idEnd > end) {
+            return null;
+        }
+        for (int i = pos; i < idEnd; i++) {
+            if (!isVideoIdChar(url.charAt(i))) {
+                return null;
             }
         }
-        
-        return videoId;
+        if (idEnd < end && !isDelimiter(url.charAt(idEnd)) && url.charAt(idEnd) != '&') {
+            return null;
+        }
+        return url.substring(pos, idEnd);
+    }
+
+    private static boolean isVideoIdChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == '/' || c == '?' || c == '#';
+    }
+
+    private static boolean isHost(String url, int pos, int hostEnd, String host) {
+        return hostEnd - pos == host.length() && url.regionMatches(true, pos, host, 0, host.length());
+    }
+
+    private static boolean matches(String url, int pos, int end, String token) {
+        return end - pos >= token.length() && url.regionMatches(true, pos, token, 0, token.length());
     }
 }
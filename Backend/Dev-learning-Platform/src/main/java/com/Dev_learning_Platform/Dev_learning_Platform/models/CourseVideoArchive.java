@@ -0,0 +1,56 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Video dado de baja que la purga ha sacado de {@code course_videos}. Conserva el id original y guarda
+ * el curso como un id simple, sin clave foránea, para no impedir el borrado de cursos.
+ */
+@Entity
+@Table(name = "course_videos_archive",
+       indexes = @Index(name = "idx_course_videos_archive_course", columnList = "course_id"))
+@Getter
+@Setter
+public class CourseVideoArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "title", nullable = false, length = 200)
+    private String title;
+
+    @Column(name = "description", length = 1000)
+    private String description;
+
+    @Column(name = "youtube_url", nullable = false, length = 500)
+    private String youtubeUrl;
+
+    @Column(name = "youtube_video_id", nullable = false, length = 50)
+    private String youtubeVideoId;
+
+    @Column(name = "order_index", nullable = false)
+    private Integer orderIndex;
+
+    @Column(name = "duration_seconds")
+    private Integer durationSeconds;
+
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "deactivated_at")
+    private LocalDateTime deactivatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
@@ -27,7 +28,19 @@ import lombok.Setter;
  */
 @Entity
 @Table(name = "enrollments", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id"}),
+       indexes = {
+           // Mis cursos: student_id + status ORDER BY enrolled_at
+           @Index(name = "idx_enrollments_student_status_enrolled", columnList = "student_id, status, enrolled_at"),
+           // Inscripciones de un curso: course_id + status ORDER BY enrolled_at
+           @Index(name = "idx_enrollments_course_status_enrolled", columnList = "course_id, status, enrolled_at"),
+           // Conteos por estado y agregados por curso (GROUP BY course_id)
+           @Index(name = "idx_enrollments_status_course", columnList = "status, course_id"),
+           // Rangos de fechas de las estadísticas administrativas
+           @Index(name = "idx_enrollments_created_at", columnList = "created_at"),
+           @Index(name = "idx_enrollments_enrolled_at", columnList = "enrolled_at"),
+           @Index(name = "idx_enrollments_completed_at", columnList = "completed_at")
+       })
 @Getter
 @Setter
 public class Enrollment {
@@ -0,0 +1,98 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Evento de ciclo de vida de una inscripción guardado en la misma transacción que el cambio
+ * (patrón transactional outbox). Un despachador en segundo plano lo publica después.
+ */
+@Entity
+@Table(name = "enrollment_outbox_events",
+       indexes = {
+           @Index(name = "idx_enrollment_outbox_status_id", columnList = "status, id"),
+           // Reclamo: ¿hay otro evento pendiente de la misma inscripción reclamado por otra pasada?
+           @Index(name = "idx_enrollment_outbox_enrollment_status", columnList = "enrollment_id, status")
+       })
+@Getter
+@Setter
+public class EnrollmentOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private EventType eventType;
+
+    @Column(name = "enrollment_id", nullable = false)
+    private Long enrollmentId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "progress_percentage")
+    private Integer progressPercentage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 20)
+    private Enrollment.EnrollmentStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Pasada del despachador que reclamó el evento y hasta cuándo; vencido el plazo otra lo puede reclamar
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public enum EventType {
+        COMPLETED,           // Curso completado
+        PROGRESS_MILESTONE,  // Se cruzó un hito de progreso (25/50/75%)
+        DROPPED              // El estudiante abandonó el curso
+    }
+
+    public enum Status {
+        PENDING,
+        DISPATCHED,
+        FAILED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
@@ -22,7 +23,8 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments",
+       indexes = @Index(name = "idx_payments_status_created_at", columnList = "status, created_at"))
 @Getter
 @Setter
 public class Payment {
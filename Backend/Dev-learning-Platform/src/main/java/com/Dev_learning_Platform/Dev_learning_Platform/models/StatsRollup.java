@@ -0,0 +1,66 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bucket agregado de métricas de la plataforma (día, semana o mes) por categoría.
+ * Las métricas que no dependen de un curso (altas de usuarios) se guardan con
+ * {@link #PLATFORM_CATEGORY_ID}.
+ */
+@Entity
+@Table(name = "stats_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"granularity", "bucket_start", "category_id"}))
+@Getter
+@Setter
+public class StatsRollup {
+
+    public static final long PLATFORM_CATEGORY_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "new_users", nullable = false)
+    private long newUsers;
+
+    @Column(name = "new_enrollments", nullable = false)
+    private long newEnrollments;
+
+    @Column(name = "completions", nullable = false)
+    private long completions;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "transactions", nullable = false)
+    private long transactions;
+
+    public enum Granularity {
+        DAY,
+        WEEK,   // Semanas de lunes a domingo
+        MONTH
+    }
+}
@@ -0,0 +1,36 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Latidos de reproducción acumulados de un video en un tramo que empieza en {@code startSecond}.
+ * Se guarda el segundo inicial, no el número de cubo, para que cambiar el ancho no mezcle tramos.
+ */
+@Entity
+@Table(name = "video_watch_buckets",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"video_id", "start_second"}))
+@Getter
+@Setter
+public class VideoWatchBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "video_id", nullable = false)
+    private Long videoId;
+
+    @Column(name = "start_second", nullable = false)
+    private Integer startSecond;
+
+    @Column(name = "heartbeats", nullable = false)
+    private Long heartbeats = 0L;
+}
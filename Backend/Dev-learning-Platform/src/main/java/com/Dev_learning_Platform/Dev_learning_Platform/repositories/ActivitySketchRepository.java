@@ -0,0 +1,43 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.ActivitySketch;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.ActivitySketch.Scope;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ActivitySketchRepository extends JpaRepository<ActivitySketch, Long> {
+
+    /**
+     * Sketch de un ámbito y día bloqueado hasta el final de la transacción (SELECT ... FOR UPDATE), para que
+     * dos instancias que vuelcan a la vez no se pisen los registros.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ActivitySketch s WHERE s.scope = :scope AND s.scopeId = :scopeId AND s.day = :day")
+    Optional<ActivitySketch> findForUpdate(@Param("scope") Scope scope, @Param("scopeId") Long scopeId,
+            @Param("day") LocalDate day);
+
+    /**
+     * Sketches de varios ámbitos en [from, to] (ambos inclusive).
+     */
+    @Query("SELECT s FROM ActivitySketch s WHERE s.scope = :scope AND s.scopeId IN :scopeIds "
+            + "AND s.day >= :from AND s.day <= :to")
+    List<ActivitySketch> findRange(@Param("scope") Scope scope, @Param("scopeIds") Collection<Long> scopeIds,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM ActivitySketch s WHERE s.day < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+}
@@ -27,4 +27,19 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     @Query("SELECT COUNT(c) FROM Course c WHERE c.category.id = :categoryId AND c.isActive = true")
     long countActiveCoursesByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Distribución por categoría en una sola consulta agrupada (solo cursos activos):
+     * [categoryId, name, color, icon, isActive, totalCourses, publishedCourses, totalEnrollments,
+     * activeEnrollments, averageProgress, totalStudents]. Los cursos se cuentan con DISTINCT
+     * porque el join con inscripciones repite cada curso una vez por inscripción.
+     */
+    @Query("SELECT c.id, c.name, c.color, c.icon, c.isActive, COUNT(DISTINCT co.id), "
+            + "COUNT(DISTINCT CASE WHEN co.isPublished = true THEN co.id END), COUNT(e.id), "
+            + "SUM(CASE WHEN e.status = 'ACTIVE' THEN 1 ELSE 0 END), "
+            + "AVG(CASE WHEN e.status = 'ACTIVE' THEN e.progressPercentage END), COUNT(DISTINCT e.student.id) "
+            + "FROM Category c LEFT JOIN Course co ON co.category = c AND co.isActive = true "
+            + "LEFT JOIN Enrollment e ON e.course = co "
+            + "GROUP BY c.id, c.name, c.color, c.icon, c.isActive, c.sortOrder ORDER BY c.sortOrder ASC, c.name ASC")
+    List<Object[]> aggregateCategoryStats();
 }
@@ -1,12 +1,16 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Category;
@@ -53,4 +57,74 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     List<Course> findByIsPremium(boolean isPremium);
     List<Course> findByCategory(Category category);
-}
\ No newline at end of file
+
+    // Una sola pasada: [isPublished, isActive, total]
+    @Query("SELECT c.isPublished, c.isActive, COUNT(c) FROM Course c GROUP BY c.isPublished, c.isActive")
+    List<Object[]> aggregateByPublishedAndActive();
+
+    // Analíticas de instructor: [id, título, publicado] de sus cursos activos
+    @Query("SELECT c.id, c.title, c.isPublished FROM Course c WHERE c.instructor.id = :instructorId "
+            + "AND c.isActive = true ORDER BY c.createdAt DESC")
+    List<Object[]> findSummariesByInstructorId(@Param("instructorId") Long instructorId);
+
+    // Cursos de una categoría (activos o no), para unir sus sketches de actividad
+    @Query("SELECT c.id FROM Course c WHERE c.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    // Sentencia directa: no carga el curso ni pasa por @PreUpdate
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.contentVersion = c.contentVersion + 1 WHERE c.id = :courseId")
+    int incrementContentVersion(@Param("courseId") Long courseId);
+
+    /**
+     * Alta, baja o cambio de duración de lecciones activas: ajusta los agregados y la versión del temario
+     * en una sola sentencia. {@code longestCandidate} solo puede subir la lección más larga; para bajarla
+     * se usa {@link #recomputeLongestLesson(Long)}.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.activeLessonCount = c.activeLessonCount + :lessonsDelta, "
+            + "c.totalDurationSeconds = c.totalDurationSeconds + :durationDelta, "
+            + "c.longestLessonSeconds = CASE WHEN c.longestLessonSeconds < :longestCandidate "
+            + "THEN :longestCandidate ELSE c.longestLessonSeconds END, "
+            + "c.contentVersion = c.contentVersion + 1 WHERE c.id = :courseId")
+    int applyVideoChange(@Param("courseId") Long courseId, @Param("lessonsDelta") int lessonsDelta,
+            @Param("durationDelta") long durationDelta, @Param("longestCandidate") int longestCandidate);
+
+    // Tras retirar o acortar una lección: la más larga se vuelve a leer de los videos activos del curso
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.longestLessonSeconds = (SELECT COALESCE(MAX(v.durationSeconds), 0) "
+            + "FROM CourseVideo v WHERE v.course.id = :courseId AND v.isActive = true) WHERE c.id = :courseId")
+    int recomputeLongestLesson(@Param("courseId") Long courseId);
+
+    // Reparación de la comprobación de integridad: los tres agregados desde los videos activos
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET "
+            + "c.activeLessonCount = (SELECT CAST(COUNT(v) AS Integer) FROM CourseVideo v "
+            + "WHERE v.course.id = c.id AND v.isActive = true), "
+            + "c.totalDurationSeconds = (SELECT COALESCE(SUM(v.durationSeconds), 0) FROM CourseVideo v "
+            + "WHERE v.course.id = c.id AND v.isActive = true), "
+            + "c.longestLessonSeconds = (SELECT COALESCE(MAX(v.durationSeconds), 0) FROM CourseVideo v "
+            + "WHERE v.course.id = c.id AND v.isActive = true) "
+            + "WHERE c.id IN :courseIds")
+    int recomputeVideoAggregates(@Param("courseIds") Collection<Long> courseIds);
+
+    // Agregados guardados: [id, lecciones activas, duración total, lección más larga]
+    @Query("SELECT c.id, c.activeLessonCount, c.totalDurationSeconds, c.longestLessonSeconds FROM Course c")
+    List<Object[]> findVideoAggregates();
+
+    // Estadísticas administrativas: [lecciones activas, duración total] de toda la plataforma
+    @Query("SELECT COALESCE(SUM(c.activeLessonCount), 0), COALESCE(SUM(c.totalDurationSeconds), 0) FROM Course c")
+    List<Object[]> sumVideoAggregates();
+
+    @Query("SELECT c.contentVersion FROM Course c WHERE c.id = :courseId")
+    Optional<Long> findContentVersionById(@Param("courseId") Long courseId);
+
+    /**
+     * Acceso al temario en una sola consulta: [userId, rol, instructorId del curso, inscripciones del
+     * usuario en el curso]. Vacío si el usuario o el curso no existen.
+     */
+    @Query("SELECT u.id, u.role, c.instructor.id, "
+            + "(SELECT COUNT(e) FROM Enrollment e WHERE e.student.id = u.id AND e.course.id = c.id) "
+            + "FROM User u, Course c WHERE u.email = :email AND c.id = :courseId")
+    List<Object[]> findSyllabusAccess(@Param("email") String email, @Param("courseId") Long courseId);
+}
@@ -1,10 +1,17 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.SyllabusVideoDto;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
 
 /**
@@ -13,8 +20,71 @@ import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
  */
 @Repository
 public interface CourseVideoRepository extends JpaRepository<CourseVideo, Long> {
-    
+
+    /** Alta por lotes JDBC de la importación masiva (parámetros nombrados). */
+    String INSERT_SQL = "INSERT INTO course_videos (title, description, youtube_url, youtube_video_id, order_index, "
+            + "duration_seconds, thumbnail_url, is_active, course_id, version) VALUES (:title, :description, "
+            + ":youtubeUrl, :youtubeVideoId, :orderIndex, :durationSeconds, :thumbnailUrl, TRUE, :courseId, 0)";
+
+    /** Reordenación y compactación por lotes JDBC: posición de un video del curso. */
+    String UPDATE_ORDER_SQL = "UPDATE course_videos SET order_index = :orderIndex, version = version + 1 "
+            + "WHERE id = :id AND course_id = :courseId";
+
+    /** Purga: copia al archivo los videos indicados que sigan dados de baja. */
+    String ARCHIVE_INACTIVE_SQL = "INSERT INTO course_videos_archive (id, title, description, youtube_url, "
+            + "youtube_video_id, order_index, duration_seconds, thumbnail_url, course_id, deactivated_at, archived_at) "
+            + "SELECT id, title, description, youtube_url, youtube_video_id, order_index, duration_seconds, "
+            + "thumbnail_url, course_id, deactivated_at, :archivedAt FROM course_videos "
+            + "WHERE id IN (:ids) AND is_active = FALSE";
+
+    /** Purga: borra los videos indicados que sigan dados de baja (tras archivarlos). */
+    String DELETE_INACTIVE_SQL = "DELETE FROM course_videos WHERE id IN (:ids) AND is_active = FALSE";
+
     List<CourseVideo> findByCourseIdOrderByOrderIndexAsc(Long courseId);
     List<CourseVideo> findByCourseIdAndIsActiveOrderByOrderIndexAsc(Long courseId, Boolean isActive);
     List<CourseVideo> findByCourseId(Long courseId);
+
+    // Reordenación: [id, orderIndex] de los videos activos del curso sin cargar entidades
+    @Query("SELECT v.id, v.orderIndex FROM CourseVideo v WHERE v.course.id = :courseId AND v.isActive = true")
+    List<Object[]> findActiveOrderByCourseId(@Param("courseId") Long courseId);
+
+    @Query("SELECT COALESCE(MAX(v.orderIndex), 0) FROM CourseVideo v WHERE v.course.id = :courseId AND v.isActive = true")
+    Integer findMaxActiveOrderIndex(@Param("courseId") Long courseId);
+
+    @Query("SELECT v.youtubeVideoId FROM CourseVideo v WHERE v.course.id = :courseId AND v.isActive = true")
+    List<String> findActiveYoutubeVideoIds(@Param("courseId") Long courseId);
+
+    boolean existsByYoutubeVideoId(String youtubeVideoId);
+
+    // Temario: videos activos del curso en orden, sin cargar entidades
+    @Query("SELECT new com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.SyllabusVideoDto("
+            + "v.id, v.title, v.description, v.youtubeUrl, v.youtubeVideoId, v.orderIndex, v.durationSeconds, "
+            + "v.thumbnailUrl, v.isActive) FROM CourseVideo v WHERE v.course.id = :courseId AND v.isActive = true "
+            + "ORDER BY v.orderIndex, v.id")
+    List<SyllabusVideoDto> findSyllabusByCourseId(@Param("courseId") Long courseId);
+
+    // Purga: [id, courseId] de los videos dados de baja antes de la fecha de corte, por bloques
+    @Query("SELECT v.id, v.course.id FROM CourseVideo v WHERE v.isActive = false AND v.deactivatedAt < :cutoff "
+            + "ORDER BY v.id")
+    List<Object[]> findPurgeCandidates(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Bajas anteriores a la columna deactivated_at: cuentan desde la primera purga que las ve
+    @Modifying
+    @Query("UPDATE CourseVideo v SET v.deactivatedAt = :now WHERE v.isActive = false AND v.deactivatedAt IS NULL")
+    int stampUndatedInactive(@Param("now") LocalDateTime now);
+
+    // Miniaturas guardadas con otra URL (las antiguas apuntaban directamente a img.youtube.com) pasan al proxy
+    @Modifying
+    @Query("UPDATE CourseVideo v SET v.thumbnailUrl = CONCAT(:publicUrl, '/', v.youtubeVideoId) "
+            + "WHERE v.thumbnailUrl IS NULL OR v.thumbnailUrl <> CONCAT(:publicUrl, '/', v.youtubeVideoId)")
+    int rewriteThumbnailUrls(@Param("publicUrl") String publicUrl);
+
+    // Latidos de reproducción: [id, courseId, durationSeconds] de los videos activos indicados
+    @Query("SELECT v.id, v.course.id, v.durationSeconds FROM CourseVideo v WHERE v.id IN :ids AND v.isActive = true")
+    List<Object[]> findWatchMetadata(@Param("ids") Collection<Long> ids);
+
+    // Integridad de los agregados del curso: [courseId, lecciones activas, duración total, lección más larga]
+    @Query("SELECT v.course.id, COUNT(v), COALESCE(SUM(v.durationSeconds), 0), COALESCE(MAX(v.durationSeconds), 0) "
+            + "FROM CourseVideo v WHERE v.isActive = true GROUP BY v.course.id")
+    List<Object[]> aggregateActiveByCourse();
 }
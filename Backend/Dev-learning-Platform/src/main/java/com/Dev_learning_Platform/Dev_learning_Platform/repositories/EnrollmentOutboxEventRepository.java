@@ -0,0 +1,59 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent.Status;
+
+public interface EnrollmentOutboxEventRepository extends JpaRepository<EnrollmentOutboxEvent, Long> {
+
+    @Query("SELECT e FROM EnrollmentOutboxEvent e WHERE e.status = :status ORDER BY e.id")
+    List<EnrollmentOutboxEvent> findByStatusOrderById(@Param("status") Status status, Pageable pageable);
+
+    /**
+     * Pendientes sin reclamo vigente cuya inscripción no tiene ningún otro evento pendiente reclamado:
+     * mientras una pasada entrega una inscripción, ninguna otra toma sus eventos siguientes.
+     */
+    @Query("SELECT e FROM EnrollmentOutboxEvent e WHERE e.status = :status "
+            + "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) "
+            + "AND NOT EXISTS (SELECT o.id FROM EnrollmentOutboxEvent o WHERE o.enrollmentId = e.enrollmentId "
+            + "AND o.status = :status AND o.claimedUntil >= :now) ORDER BY e.id")
+    List<EnrollmentOutboxEvent> findClaimable(@Param("status") Status status, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    /**
+     * Reclama los eventos que sigan libres. Con varias instancias solo una UPDATE se queda cada fila:
+     * la otra espera el bloqueo de fila y al reevaluar la condición ya no la cumple.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EnrollmentOutboxEvent e SET e.claimToken = :token, e.claimedUntil = :until "
+            + "WHERE e.id IN :ids AND e.status = :status AND (e.claimedUntil IS NULL OR e.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("status") Status status, @Param("token") String token,
+            @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    @Query("SELECT e FROM EnrollmentOutboxEvent e WHERE e.claimToken = :token ORDER BY e.id")
+    List<EnrollmentOutboxEvent> findByClaimTokenOrderById(@Param("token") String token);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EnrollmentOutboxEvent e SET e.claimToken = NULL, e.claimedUntil = NULL WHERE e.id IN :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+
+    long countByStatus(Status status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EnrollmentOutboxEvent e SET e.status = :status, e.processedAt = :now WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("status") Status status,
+            @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM EnrollmentOutboxEvent e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") Status status, @Param("before") LocalDateTime before);
+}
@@ -1,25 +1,70 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports.EnrollmentExportRow;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio para manejar operaciones de base de datos de inscripciones
  */
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
-    Optional<Enrollment> findByStudentIdAndCourseId(Long studentId, Long courseId);
+    /**
+     * Sentencia compartida con la inscripción masiva por lotes JDBC (mismos parámetros nombrados).
+     * Solo la clave única (student_id, course_id) se trata como "ya existe": a diferencia de INSERT IGNORE,
+     * un alumno o curso inexistente sigue fallando por la clave foránea.
+     */
+    String INSERT_IF_ABSENT_SQL = "INSERT INTO enrollments "
+            + "(student_id, course_id, payment_id, status, progress_percentage, enrolled_at, created_at, updated_at) "
+            + "VALUES (:studentId, :courseId, :paymentId, 'ACTIVE', 0, :now, :now, :now) "
+            + "ON DUPLICATE KEY UPDATE id = id";
+
+    // Consulta explícita: la derivada une users y courses con LEFT JOIN y filtra por sus ids, sin usar el índice
+    @Query("SELECT e FROM Enrollment e WHERE e.student.id = :studentId AND e.course.id = :courseId")
+    Optional<Enrollment> findByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    /**
+     * Inserta la inscripción solo si no existe otra para el mismo (student_id, course_id).
+     * Una única sentencia sin SELECT previo: las peticiones concurrentes o los reintentos
+     * del webhook no chocan con la restricción única. Funciona en MySQL y en H2 (MODE=MySQL).
+     * En MySQL requiere {@code useAffectedRows=true} en la URL: sin él, la fila existente cuenta como 1.
+     *
+     * @return 1 si se creó la fila, 0 si ya existía
+     * @throws org.springframework.dao.DataIntegrityViolationException si el alumno o el curso no existen
+     */
+    @Modifying
+    @Query(value = INSERT_IF_ABSENT_SQL, nativeQuery = true)
+    int insertIfAbsent(@Param("studentId") Long studentId, @Param("courseId") Long courseId,
+            @Param("paymentId") Long paymentId, @Param("now") LocalDateTime now);
+
+    /**
+     * Inscripción masiva: alumnos del lote cuya inscripción creó el propio lote (su created_at es el
+     * instante del lote). Con rewriteBatchedStatements el driver no informa del resultado por fila.
+     */
+    @Query("SELECT e.student.id FROM Enrollment e WHERE e.course.id = :courseId AND e.student.id IN :studentIds "
+            + "AND e.createdAt = :createdAt")
+    List<Long> findStudentIdsCreatedAt(@Param("courseId") Long courseId,
+            @Param("studentIds") Collection<Long> studentIds, @Param("createdAt") LocalDateTime createdAt);
+
     boolean existsByStudentIdAndCourseId(Long studentId, Long courseId);
     boolean existsByCourseIdAndStudentId(Long courseId, Long studentId);
 
@@ -59,10 +104,65 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
     // Métodos para estadísticas administrativas
     long countByStatus(EnrollmentStatus status);
+
+    @Query("SELECT e.status, COUNT(e) FROM Enrollment e GROUP BY e.status")
+    List<Object[]> countGroupByStatus();
+
+    // Rollups diarios: [día, categoryId, total]
+    @Query("SELECT CAST(e.enrolledAt AS LocalDate), e.course.category.id, COUNT(e) FROM Enrollment e "
+            + "WHERE e.enrolledAt >= :from AND e.enrolledAt < :to "
+            + "GROUP BY CAST(e.enrolledAt AS LocalDate), e.course.category.id")
+    List<Object[]> countEnrolledByDayAndCategory(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT CAST(e.completedAt AS LocalDate), e.course.category.id, COUNT(e) FROM Enrollment e "
+            + "WHERE e.completedAt >= :from AND e.completedAt < :to "
+            + "GROUP BY CAST(e.completedAt AS LocalDate), e.course.category.id")
+    List<Object[]> countCompletedByDayAndCategory(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Analíticas de instructor: una consulta agrupada por curso para todos sus cursos
+    // [courseId, total, activas, completadas, progreso medio de las activas]
+    @Query("SELECT e.course.id, COUNT(e), SUM(CASE WHEN e.status = 'ACTIVE' THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN e.status = 'COMPLETED' THEN 1 ELSE 0 END), "
+            + "AVG(CASE WHEN e.status = 'ACTIVE' THEN e.progressPercentage END) FROM Enrollment e "
+            + "WHERE e.course.instructor.id = :instructorId GROUP BY e.course.id")
+    List<Object[]> aggregateByCourseForInstructor(@Param("instructorId") Long instructorId);
+
+    // [courseId, día, inscripciones]
+    @Query("SELECT e.course.id, CAST(e.enrolledAt AS LocalDate), COUNT(e) FROM Enrollment e "
+            + "WHERE e.course.instructor.id = :instructorId AND e.enrolledAt >= :since "
+            + "GROUP BY e.course.id, CAST(e.enrolledAt AS LocalDate)")
+    List<Object[]> countEnrolledByCourseAndDayForInstructor(@Param("instructorId") Long instructorId,
+            @Param("since") LocalDateTime since);
+
     long countByCreatedAtAfter(LocalDateTime dateTime);
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     List<Enrollment> findByCreatedAtAfter(LocalDateTime dateTime);
     List<Enrollment> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     long countByCourseIsPremium(boolean isPremium);
     List<Enrollment> findByCourseIn(List<Course> courses);
+
+    // Transiciones de estado masivas (un UPDATE por curso o por bloque de IDs)
+    long countByCourseIdAndStatusNot(Long courseId, EnrollmentStatus status);
+
+    @Query("SELECT e.id FROM Enrollment e WHERE e.course.id = :courseId AND e.status <> :status AND e.id > :afterId ORDER BY e.id ASC")
+    List<Long> findIdsByCourseIdAndStatusNot(@Param("courseId") Long courseId, @Param("status") EnrollmentStatus status,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Enrollment e SET e.status = :status, e.updatedAt = :now WHERE e.course.id = :courseId AND e.status <> :status")
+    int updateStatusByCourseId(@Param("courseId") Long courseId, @Param("status") EnrollmentStatus status,
+            @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Enrollment e SET e.status = :status, e.updatedAt = :now WHERE e.id IN :ids AND e.status <> :status")
+    int updateStatusByIdIn(@Param("ids") List<Long> ids, @Param("status") EnrollmentStatus status,
+            @Param("now") LocalDateTime now);
+
+    // Exportación en streaming: hay que consumirlo dentro de una transacción y cerrarlo
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports.EnrollmentExportRow("
+            + "e.id, s.id, s.email, c.id, c.title, e.status, e.progressPercentage, e.enrolledAt, e.completedAt) "
+            + "FROM Enrollment e JOIN e.student s JOIN e.course c "
+            + "WHERE e.enrolledAt >= :from AND e.enrolledAt < :to ORDER BY e.enrolledAt, e.id")
+    Stream<EnrollmentExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
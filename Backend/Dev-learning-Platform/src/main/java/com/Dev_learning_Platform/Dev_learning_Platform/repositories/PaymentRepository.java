@@ -1,15 +1,53 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports.PaymentExportRow;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Payment;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByUserId(Long userId);
     List<Payment> findByCourseId(Long courseId);
     List<Payment> findByStatus(String status);
+
+    // Rollups diarios: [día, categoryId, ingresos, transacciones]
+    @Query("SELECT CAST(p.createdAt AS LocalDate), p.course.category.id, SUM(p.amount), COUNT(p) FROM Payment p "
+            + "WHERE p.status = :status AND p.createdAt >= :from AND p.createdAt < :to "
+            + "GROUP BY CAST(p.createdAt AS LocalDate), p.course.category.id")
+    List<Object[]> sumByDayAndCategory(@Param("status") Payment.Status status, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Primer pago registrado: marca desde dónde hay que reconstruir los rollups históricos
+    @Query("SELECT MIN(p.createdAt) FROM Payment p")
+    LocalDateTime findEarliestCreatedAt();
+
+    // Totales históricos: [ingresos, transacciones]
+    @Query("SELECT SUM(p.amount), COUNT(p) FROM Payment p WHERE p.status = :status")
+    List<Object[]> sumByStatus(@Param("status") Payment.Status status);
+
+    // Analíticas de instructor: [courseId, ingresos, transacciones]
+    @Query("SELECT p.course.id, SUM(p.amount), COUNT(p) FROM Payment p "
+            + "WHERE p.course.instructor.id = :instructorId AND p.status = :status GROUP BY p.course.id")
+    List<Object[]> sumByCourseForInstructor(@Param("instructorId") Long instructorId,
+            @Param("status") Payment.Status status);
+
+    // Exportación en streaming: hay que consumirlo dentro de una transacción y cerrarlo
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports.PaymentExportRow("
+            + "p.id, u.id, u.email, c.id, c.title, p.amount, p.status, p.stripePaymentId, p.createdAt) "
+            + "FROM Payment p JOIN p.user u JOIN p.course c "
+            + "WHERE p.createdAt >= :from AND p.createdAt < :to ORDER BY p.createdAt, p.id")
+    Stream<PaymentExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,46 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.StatsRollup;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.StatsRollup.Granularity;
+
+@Repository
+public interface StatsRollupRepository extends JpaRepository<StatsRollup, Long> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StatsRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(@Param("granularity") Granularity granularity, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Suma los buckets de una granularidad en [from, to) por categoría:
+     * [categoryId, newUsers, newEnrollments, completions, revenue, transactions].
+     */
+    @Query("SELECT r.categoryId, SUM(r.newUsers), SUM(r.newEnrollments), SUM(r.completions), SUM(r.revenue), "
+            + "SUM(r.transactions) FROM StatsRollup r WHERE r.granularity = :granularity "
+            + "AND r.bucketStart >= :from AND r.bucketStart < :to GROUP BY r.categoryId")
+    List<Object[]> sumByCategory(@Param("granularity") Granularity granularity, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Serie temporal en [from, to): [bucketStart, newUsers, newEnrollments, completions, revenue, transactions].
+     * Con {@code categoryId} null se suman todas las categorías.
+     */
+    @Query("SELECT r.bucketStart, SUM(r.newUsers), SUM(r.newEnrollments), SUM(r.completions), SUM(r.revenue), "
+            + "SUM(r.transactions) FROM StatsRollup r WHERE r.granularity = :granularity "
+            + "AND r.bucketStart >= :from AND r.bucketStart < :to "
+            + "AND (:categoryId IS NULL OR r.categoryId = :categoryId) "
+            + "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Object[]> series(@Param("granularity") Granularity granularity, @Param("from") LocalDate from,
+            @Param("to") LocalDate to, @Param("categoryId") Long categoryId);
+
+    boolean existsByGranularity(Granularity granularity);
+}
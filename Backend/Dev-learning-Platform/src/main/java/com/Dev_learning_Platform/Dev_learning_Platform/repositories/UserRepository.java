@@ -1,24 +1,55 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
 
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports.UserExportRow;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
     List<User> findByRole(User.Role role);
     Boolean existsByEmail(String email);
     Optional<User> findByUserName(String userName);
+
+    // Resolución por lotes para inscripciones masivas: [email, id, role] sin cargar entidades
+    @Query("SELECT u.email, u.id, u.role FROM User u WHERE u.email IN :emails")
+    List<Object[]> findIdentitiesByEmailIn(@Param("emails") Collection<String> emails);
     
     // Métodos para estadísticas administrativas
     long countByRole(User.Role role);
     long countByIsActive(boolean isActive);
     long countByCreatedAtAfter(Timestamp timestamp);
     long countByCreatedAtBetween(Timestamp start, Timestamp end);
+
+    // Una sola pasada: [role, isActive, total, altas desde since7, altas desde since30]
+    @Query("SELECT u.role, u.isActive, COUNT(u), "
+            + "SUM(CASE WHEN u.createdAt >= :since7 THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN u.createdAt >= :since30 THEN 1 ELSE 0 END) "
+            + "FROM User u GROUP BY u.role, u.isActive")
+    List<Object[]> aggregateByRoleAndStatus(@Param("since7") Timestamp since7, @Param("since30") Timestamp since30);
+
+    // Rollups diarios: [día, altas]
+    @Query("SELECT CAST(u.createdAt AS LocalDate), COUNT(u) FROM User u "
+            + "WHERE u.createdAt >= :from AND u.createdAt < :to GROUP BY CAST(u.createdAt AS LocalDate)")
+    List<Object[]> countCreatedByDay(@Param("from") Timestamp from, @Param("to") Timestamp to);
+
+    // Exportación en streaming: hay que consumirlo dentro de una transacción y cerrarlo
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports.UserExportRow("
+            + "u.id, u.userName, u.lastName, u.email, u.role, u.isActive, u.createdAt) FROM User u ORDER BY u.id")
+    Stream<UserExportRow> streamAllForExport();
 }
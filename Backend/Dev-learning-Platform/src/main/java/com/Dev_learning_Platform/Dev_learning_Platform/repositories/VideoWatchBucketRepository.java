@@ -0,0 +1,24 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.VideoWatchBucket;
+
+@Repository
+public interface VideoWatchBucketRepository extends JpaRepository<VideoWatchBucket, Long> {
+
+    /** Volcado por lotes JDBC de los histogramas: suma los latidos al tramo, creándolo si no existe. */
+    String UPSERT_SQL = "INSERT INTO video_watch_buckets (video_id, start_second, heartbeats) "
+            + "VALUES (:videoId, :startSecond, :heartbeats) "
+            + "ON DUPLICATE KEY UPDATE heartbeats = heartbeats + VALUES(heartbeats)";
+
+    // Curva de un video: [segundo inicial, latidos] en orden
+    @Query("SELECT b.startSecond, b.heartbeats FROM VideoWatchBucket b WHERE b.videoId = :videoId "
+            + "ORDER BY b.startSecond")
+    List<Object[]> findCurveByVideoId(@Param("videoId") Long videoId);
+}
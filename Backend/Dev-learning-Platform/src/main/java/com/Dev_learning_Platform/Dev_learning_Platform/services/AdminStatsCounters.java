@@ -0,0 +1,331 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.CourseStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.EnrollmentStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.UserStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseEnrollmentsSuspendedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseStateChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseVideoChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentLifecycleEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.UserRegisteredEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Contadores en memoria de la plataforma para el panel de administración.
+ * Se actualizan de forma incremental con los eventos de dominio (una vez confirmada la transacción)
+ * y se reconcilian periódicamente contra la base de datos para corregir desviaciones.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdminStatsCounters {
+
+    private static final int APPLIED_OUTBOX_IDS = 10_000;
+
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<User.Role, LongAdder> usersByRole = adders(User.Role.class);
+    private final LongAdder activeUsers = new LongAdder();
+    private final LongAdder newUsersLast7Days = new LongAdder();
+    private final LongAdder newUsersLast30Days = new LongAdder();
+    private final LongAdder totalCourses = new LongAdder();
+    private final LongAdder publishedCourses = new LongAdder();
+    private final LongAdder activeCourses = new LongAdder();
+    private final LongAdder totalLessons = new LongAdder();
+    private final LongAdder totalDurationSeconds = new LongAdder();
+    private final Map<EnrollmentStatus, LongAdder> enrollmentsByStatus = adders(EnrollmentStatus.class);
+
+    // Últimos eventos del outbox aplicados: una reentrega (entrega "al menos una vez") no vuelve a contar
+    private final Set<Long> appliedOutboxIds = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > APPLIED_OUTBOX_IDS;
+        }
+    });
+
+    private volatile LocalDateTime lastReconciledAt;
+
+    // ----- Lectura -----
+
+    public UserStatsDto userStats() {
+        long students = usersByRole.get(User.Role.STUDENT).sum();
+        long instructors = usersByRole.get(User.Role.INSTRUCTOR).sum();
+        long admins = usersByRole.get(User.Role.ADMIN).sum();
+        long total = 0;
+        for (LongAdder adder : usersByRole.values()) {
+            total += adder.sum();
+        }
+        long active = activeUsers.sum();
+        return UserStatsDto.builder()
+                .totalUsers(total)
+                .activeUsers(active)
+                .inactiveUsers(total - active)
+                .totalStudents(students)
+                .totalInstructors(instructors)
+                .totalAdmins(admins)
+                .newUsersLast30Days(newUsersLast30Days.sum())
+                .newUsersLast7Days(newUsersLast7Days.sum())
+                .build();
+    }
+
+    public CourseStatsDto courseStats() {
+        long total = totalCourses.sum();
+        long published = publishedCourses.sum();
+        return CourseStatsDto.builder()
+                .totalCourses(total)
+                .publishedCourses(published)
+                .draftCourses(total - published)
+                .totalLessons(totalLessons.sum())
+                .totalMinutes(totalDurationSeconds.sum() / 60)
+                .build();
+    }
+
+    public EnrollmentStatsDto enrollmentStats() {
+        long total = 0;
+        for (LongAdder adder : enrollmentsByStatus.values()) {
+            total += adder.sum();
+        }
+        long completed = enrollmentsByStatus.get(EnrollmentStatus.COMPLETED).sum();
+        long inProgress = enrollmentsByStatus.get(EnrollmentStatus.ACTIVE).sum();
+        return EnrollmentStatsDto.builder()
+                .totalEnrollments(total)
+                .completedEnrollments(completed)
+                .inProgressEnrollments(inProgress)
+                .averageCompletionRate(total == 0 ? 0.0 : completed * 100.0 / total)
+                .build();
+    }
+
+    public long countByRole(User.Role role) {
+        return usersByRole.get(role).sum();
+    }
+
+    public LocalDateTime getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    // ----- Eventos de dominio -----
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        if (event.getRole() != null) {
+            usersByRole.get(event.getRole()).increment();
+        }
+        if (event.isActive()) {
+            activeUsers.increment();
+        }
+        newUsersLast7Days.increment();
+        newUsersLast30Days.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseStateChanged(CourseStateChangedEvent event) {
+        apply(event.getBefore(), -1);
+        apply(event.getAfter(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseVideoChanged(CourseVideoChangedEvent event) {
+        totalLessons.add(event.getLessonsDelta());
+        totalDurationSeconds.add(event.getDurationSecondsDelta());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsCreated(EnrollmentsCreatedEvent event) {
+        enrollmentsByStatus.get(EnrollmentStatus.ACTIVE).add(event.getCount());
+    }
+
+    /**
+     * Los eventos del outbox se publican fuera de la transacción, ya confirmados. El despachador puede
+     * volver a entregar un evento si no llegó a marcarlo; se ignoran los ids ya aplicados recientemente.
+     */
+    @EventListener
+    public void onEnrollmentLifecycle(EnrollmentLifecycleEvent event) {
+        EnrollmentStatus target = switch (event.getType()) {
+            case COMPLETED -> EnrollmentStatus.COMPLETED;
+            case DROPPED -> EnrollmentStatus.DROPPED;
+            case PROGRESS_MILESTONE -> null;
+        };
+        if (target == null || event.getPreviousStatus() == null || event.getPreviousStatus() == target) {
+            return;
+        }
+        boolean firstDelivery;
+        synchronized (appliedOutboxIds) {
+            firstDelivery = event.getOutboxId() == null || appliedOutboxIds.add(event.getOutboxId());
+        }
+        if (firstDelivery) {
+            enrollmentsByStatus.get(event.getPreviousStatus()).decrement();
+            enrollmentsByStatus.get(target).increment();
+        }
+    }
+
+    /**
+     * La suspensión masiva no indica el estado previo de cada fila: se recuentan las inscripciones
+     * en el primario, que ya tiene la suspensión confirmada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseEnrollmentsSuspended(CourseEnrollmentsSuspendedEvent event) {
+        transactionTemplate.execute(status -> reconcileEnrollments());
+    }
+
+    // ----- Reconciliación -----
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Recalcula todos los contadores con cuatro consultas agrupadas (usuarios, cursos, agregados de videos
+     * guardados en los cursos, inscripciones).
+     * Las ventanas de altas de 7 y 30 días solo se desplazan aquí, por lo que su precisión
+     * depende del intervalo de reconciliación.
+     * Sin {@code readOnly}: debe leer del primario, porque con la réplica retrasada se sobrescribirían los
+     * contadores con valores anteriores a los eventos ya aplicados.
+     */
+    @Scheduled(fixedDelayString = "${app.admin.stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${app.admin.stats.reconcile-interval-ms:600000}")
+    @Transactional
+    public void reconcile() {
+        try {
+            long drift = reconcileUsers() + reconcileCourses() + reconcileVideos() + reconcileEnrollments();
+            lastReconciledAt = LocalDateTime.now();
+            if (drift != 0) {
+                log.info("Estadísticas de administración reconciliadas (desviación corregida: {})", drift);
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Error reconciliando estadísticas de administración: {}", e.getMessage(), e);
+        }
+    }
+
+    private long reconcileUsers() {
+        long now = System.currentTimeMillis();
+        Map<User.Role, Long> byRole = new EnumMap<>(User.Role.class);
+        long active = 0;
+        long last7 = 0;
+        long last30 = 0;
+        for (Object[] row : userRepository.aggregateByRoleAndStatus(
+                new Timestamp(now - TimeUnit.DAYS.toMillis(7)), new Timestamp(now - TimeUnit.DAYS.toMillis(30)))) {
+            long count = toLong(row[2]);
+            byRole.merge((User.Role) row[0], count, Long::sum);
+            if (Boolean.TRUE.equals(row[1])) {
+                active += count;
+            }
+            last7 += toLong(row[3]);
+            last30 += toLong(row[4]);
+        }
+        long drift = 0;
+        for (User.Role role : User.Role.values()) {
+            drift += set(usersByRole.get(role), byRole.getOrDefault(role, 0L));
+        }
+        drift += set(activeUsers, active);
+        set(newUsersLast7Days, last7);
+        set(newUsersLast30Days, last30);
+        return drift;
+    }
+
+    private long reconcileCourses() {
+        long total = 0;
+        long published = 0;
+        long active = 0;
+        for (Object[] row : courseRepository.aggregateByPublishedAndActive()) {
+            long count = toLong(row[2]);
+            total += count;
+            if (Boolean.TRUE.equals(row[0])) {
+                published += count;
+            }
+            if (Boolean.TRUE.equals(row[1])) {
+                active += count;
+            }
+        }
+        return set(totalCourses, total) + set(publishedCourses, published) + set(activeCourses, active);
+    }
+
+    private long reconcileVideos() {
+        List<Object[]> rows = courseRepository.sumVideoAggregates();
+        Object[] row = rows.isEmpty() ? new Object[] {0L, 0L} : rows.get(0);
+        return set(totalLessons, toLong(row[0])) + set(totalDurationSeconds, toLong(row[1]));
+    }
+
+    private long reconcileEnrollments() {
+        Map<EnrollmentStatus, Long> byStatus = new EnumMap<>(EnrollmentStatus.class);
+        for (Object[] row : enrollmentRepository.countGroupByStatus()) {
+            byStatus.put((EnrollmentStatus) row[0], toLong(row[1]));
+        }
+        long drift = 0;
+        for (EnrollmentStatus status : EnrollmentStatus.values()) {
+            drift += set(enrollmentsByStatus.get(status), byStatus.getOrDefault(status, 0L));
+        }
+        return drift;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private void apply(CourseStateChangedEvent.State state, int delta) {
+        if (state == null) {
+            return;
+        }
+        totalCourses.add(delta);
+        if (state.published()) {
+            publishedCourses.add(delta);
+        }
+        if (state.active()) {
+            activeCourses.add(delta);
+        }
+    }
+
+    /**
+     * Ajusta el contador al valor real sumando la diferencia. No es atómico respecto a los eventos: uno
+     * que llegue entre la consulta y el ajuste puede perderse o contarse dos veces, y queda corregido
+     * en la siguiente reconciliación.
+     *
+     * @return desviación absoluta corregida
+     */
+    private static long set(LongAdder adder, long actual) {
+        long diff = actual - adder.sum();
+        if (diff != 0) {
+            adder.add(diff);
+        }
+        return Math.abs(diff);
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> adders(Class<E> type) {
+        Map<E, LongAdder> map = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            map.put(value, new LongAdder());
+        }
+        return map;
+    }
+}
@@ -1,20 +1,47 @@
-
 package com.Dev_learning_Platform.Dev_learning_Platform.services;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.ActivityStatsDto;
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.AdminStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.CategoryDistributionDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.CourseStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.EnrollmentStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.GrowthStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.RevenueStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.StatsSeriesPointDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.UniqueViewersDto;
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.UserStatsDto;
-import static com.Dev_learning_Platform.Dev_learning_Platform.models.User.Role.ADMIN;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.StatsRollup.Granularity;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.activity.ActivitySketchService;
 import static com.Dev_learning_Platform.Dev_learning_Platform.models.User.Role.INSTRUCTOR;
 import static com.Dev_learning_Platform.Dev_learning_Platform.models.User.Role.STUDENT;
-import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Servicio para generar estadísticas de administración
+ * Servicio para generar estadísticas de administración.
+ * Los contadores se leen de {@link AdminStatsCounters} y las series de {@link StatsRollupService}.
+ * Cada sección del panel se calcula en paralelo en un hilo virtual con su propio timeout.
  */
 @Slf4j
 @Service
@@ -22,105 +49,199 @@ import lombok.extern.slf4j.Slf4j;
 
 public class AdminStatsService {
 
-    private final UserRepository userRepository;
-    private final com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository courseRepository;
-    private final com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository courseVideoRepository;
+    private final AdminStatsCounters counters;
+    private final StatsRollupService rollupService;
+    private final CategoryStatsService categoryStatsService;
+    private final ActivitySketchService activitySketchService;
+
+    private final ExecutorService sectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.admin.stats.section-timeout-ms:2000}")
+    private long sectionTimeoutMs;
 
     /**
-     * Obtiene todas las estadísticas de la plataforma - Versión simplificada
+     * Obtiene todas las estadísticas de la plataforma. Las secciones se lanzan a la vez, así que
+     * la respuesta tarda lo que la más lenta; una sección que supera el timeout o falla se devuelve
+     * en null y se informa en {@code incompleteSections}.
      */
     public AdminStatsDto getAllStats() {
-        try {
-            log.info("Generando estadísticas completas de la plataforma");
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+        Map<String, CompletableFuture<Object>> sections = new LinkedHashMap<>();
+        Map<String, Long> latencies = new ConcurrentHashMap<>();
+        sections.put("users", startSection("users", this::getUserStats, latencies));
+        sections.put("courses", startSection("courses", this::getCourseStats, latencies));
+        sections.put("enrollments", startSection("enrollments", this::getEnrollmentStats, latencies));
+        sections.put("revenue", startSection("revenue", this::getRevenueStats, latencies));
+        sections.put("growth", startSection("growth", this::getGrowthStats, latencies));
+        sections.put("categories", startSection("categories", this::getCategoryDistribution, latencies));
+        sections.put("activity", startSection("activity", this::getActivityStats, latencies));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        Map<String, Long> sectionLatencies = new LinkedHashMap<>();
+        List<String> incomplete = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<Object>> entry : sections.entrySet()) {
+            String name = entry.getKey();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                results.put(name, entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                incomplete.add(name);
+                log.warn("Sección '{}' de estadísticas superó el timeout de {} ms", name, sectionTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                incomplete.add(name);
+            } catch (Exception e) {
+                incomplete.add(name);
+                Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+                log.error("❌ Error en la sección '{}' de estadísticas: {}", name,
+                        cause != null ? cause.getMessage() : e.getMessage());
+            }
+            sectionLatencies.put(name, latencies.getOrDefault(name, sectionTimeoutMs));
+        }
 
         return AdminStatsDto.builder()
-            .userStats(getUserStats())
-            .courseStats(getCourseStats())
+            .userStats((UserStatsDto) results.get("users"))
+            .courseStats((CourseStatsDto) results.get("courses"))
+            .enrollmentStats((EnrollmentStatsDto) results.get("enrollments"))
+            .revenueStats((RevenueStatsDto) results.get("revenue"))
+            .growthStats((GrowthStatsDto) results.get("growth"))
+            .categoryDistribution((CategoryDistributionDto) results.get("categories"))
+            .activityStats((ActivityStatsDto) results.get("activity"))
+            .sectionLatenciesMs(sectionLatencies)
+            .incompleteSections(incomplete)
             .build();
+    }
 
-        } catch (Exception e) {
-            log.error("❌ Error construyendo estadísticas de administrador: {}", e.getMessage(), e);
-            throw new RuntimeException("❌ Error construyendo estadísticas de administrador", e);
-        }
+    private CompletableFuture<Object> startSection(String name, Supplier<?> supplier, Map<String, Long> latencies) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return supplier.get();
+            } finally {
+                latencies.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }, sectionExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sectionExecutor.shutdown();
     }
 
     /**
      * Obtiene estadísticas de cursos
      */
-    public com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.CourseStatsDto getCourseStats() {
-        try {
-            log.info("Obteniendo estadísticas de cursos...");
-            long totalCourses = courseRepository.count();
-            long publishedCourses = courseRepository.countByIsPublished(true);
-            long draftCourses = courseRepository.countByIsPublished(false);
-            long totalLessons = courseVideoRepository.count();
-            long totalMinutes = courseVideoRepository.findAll().stream()
-                .filter(v -> v.getDurationSeconds() != null)
-                .mapToLong(v -> v.getDurationSeconds() / 60)
-                .sum();
-
-            return com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.CourseStatsDto.builder()
-                    .totalCourses(totalCourses)
-                    .publishedCourses(publishedCourses)
-                    .draftCourses(draftCourses)
-                    .totalLessons(totalLessons)
-                    .totalMinutes(totalMinutes)
-                    .build();
-        } catch (Exception e) {
-            log.error("❌ Error obteniendo estadísticas de cursos: {}", e.getMessage(), e);
-            throw new RuntimeException("❌ Error obteniendo estadísticas de cursos", e);
-        }
+    public CourseStatsDto getCourseStats() {
+        return counters.courseStats();
+    }
+
+    /**
+     * Obtiene estadísticas de inscripciones
+     */
+    public EnrollmentStatsDto getEnrollmentStats() {
+        return counters.enrollmentStats();
     }
+
         /**
          * Retorna el total de estudiantes registrados
          */
         public long getTotalStudents() {
-            return userRepository.countByRole(STUDENT);
+            return counters.countByRole(STUDENT);
         }
 
         /**
          * Retorna el total de instructores registrados
          */
         public long getTotalInstructors() {
-            return userRepository.countByRole(INSTRUCTOR);
+            return counters.countByRole(INSTRUCTOR);
         }
+
     /**
-     * Obtiene estadísticas de usuarios - Versión simplificada siguiendo el ejemplo
+     * Obtiene estadísticas de usuarios
      */
     public UserStatsDto getUserStats() {
-        try {
-            log.info("Obteniendo estadísticas de usuarios...");
-            
-            long total = userRepository.count();
-            log.info("Total usuarios: {}", total);
-            
-            long active = userRepository.countByIsActive(true);
-            log.info("Usuarios activos: {}", active);
-            
-            long inactive = userRepository.countByIsActive(false);
-            log.info("Usuarios inactivos: {}", inactive);
-
-        // Contar usuarios por rol de forma limpia
-        long totalStudents = userRepository.countByRole(STUDENT);
-        long totalInstructors = userRepository.countByRole(INSTRUCTOR);
-        long totalAdmins = userRepository.countByRole(ADMIN);
-
-        return UserStatsDto.builder()
-            .totalUsers(total)
-            .activeUsers(active)
-            .inactiveUsers(inactive)
-            .totalStudents(totalStudents)
-            .totalInstructors(totalInstructors)
-            .totalAdmins(totalAdmins)
-            .newUsersLast30Days(0L)
-            .newUsersLast7Days(0L)
-            .build();
+        return counters.userStats();
+    }
 
-        } catch (Exception e) {
-            log.error("❌ Error al obtener estadísticas de usuarios: {}", e.getMessage(), e);
-            throw new RuntimeException("❌ Error al obtener estadísticas de usuarios", e);
+    /**
+     * Obtiene estadísticas de ingresos: mes y año desde los rollups mensuales, el total histórico
+     * directamente de los pagos
+     */
+    public RevenueStatsDto getRevenueStats() {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate nextMonth = thisMonth.plusMonths(1);
+        StatsSeriesPointDto allTime = rollupService.getAllTimeRevenue();
+        StatsSeriesPointDto month = rollupService.getMonthlyTotals(thisMonth, nextMonth);
+        StatsSeriesPointDto year = rollupService.getMonthlyTotals(thisMonth.withMonth(1), nextMonth);
+
+        return RevenueStatsDto.builder()
+                .totalRevenue(allTime.getRevenue())
+                .monthlyRevenue(month.getRevenue())
+                .yearlyRevenue(year.getRevenue())
+                .totalTransactions(allTime.getTransactions())
+                .build();
+    }
+
+    /**
+     * Obtiene el crecimiento del mes actual frente al anterior a partir de los rollups mensuales
+     */
+    public GrowthStatsDto getGrowthStats() {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        StatsSeriesPointDto current = rollupService.getMonthlyTotals(thisMonth, thisMonth.plusMonths(1));
+        StatsSeriesPointDto previous = rollupService.getMonthlyTotals(thisMonth.minusMonths(1), thisMonth);
+
+        return GrowthStatsDto.builder()
+                .userGrowthRate(growthRate(current.getNewUsers(), previous.getNewUsers()))
+                .enrollmentGrowthRate(growthRate(current.getNewEnrollments(), previous.getNewEnrollments()))
+                .revenueGrowthRate(growthRate(current.getRevenue(), previous.getRevenue()))
+                .newUsersThisMonth(current.getNewUsers())
+                .newEnrollmentsThisMonth(current.getNewEnrollments())
+                .build();
+    }
+
+    /**
+     * Distribución de cursos e inscripciones por categoría
+     */
+    public CategoryDistributionDto getCategoryDistribution() {
+        return categoryStatsService.getDistribution();
+    }
+
+    /**
+     * Alumnos activos diarios y mensuales (aproximados)
+     */
+    public ActivityStatsDto getActivityStats() {
+        return activitySketchService.getActivityStats();
+    }
+
+    /**
+     * Alumnos distintos de un curso o, si no se indica curso, de una categoría
+     */
+    public UniqueViewersDto getUniqueViewers(Long courseId, Long categoryId, LocalDate from, LocalDate to) {
+        if ((courseId == null) == (categoryId == null)) {
+            throw new IllegalArgumentException("Indica courseId o categoryId");
         }
+        return courseId != null
+                ? activitySketchService.getCourseViewers(courseId, from, to)
+                : activitySketchService.getCategoryViewers(categoryId, from, to);
+    }
+
+    /**
+     * Serie temporal de métricas para gráficos del panel
+     */
+    public List<StatsSeriesPointDto> getSeries(Granularity granularity, LocalDate from, LocalDate to, Long categoryId) {
+        return rollupService.getSeries(granularity, from, to, categoryId);
+    }
+
+    private static Double growthRate(long current, long previous) {
+        return growthRate(BigDecimal.valueOf(current), BigDecimal.valueOf(previous));
     }
 
-    // Métodos adicionales se agregarán gradualmente una vez que el básico funcione
+    private static Double growthRate(BigDecimal current, BigDecimal previous) {
+        if (previous.signum() == 0) {
+            return current.signum() == 0 ? 0.0 : 100.0;
+        }
+        return current.subtract(previous).multiply(BigDecimal.valueOf(100))
+                .divide(previous, 2, RoundingMode.HALF_UP).doubleValue();
+    }
 }
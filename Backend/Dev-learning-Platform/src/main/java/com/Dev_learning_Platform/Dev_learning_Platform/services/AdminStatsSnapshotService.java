@@ -0,0 +1,77 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.AdminStatsDto;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene la última foto de las estadísticas del panel de administración.
+ * Un refresco programado la recalcula y la publica en un {@link AtomicReference}; las peticiones
+ * solo leen la referencia, así que el coste no depende de cuántos administradores tengan el panel abierto.
+ * Las fotos publicadas no se modifican nunca: cada refresco construye un DTO nuevo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminStatsSnapshotService {
+
+    private final AdminStatsService adminStatsService;
+
+    private final AtomicReference<AdminStatsDto> snapshot = new AtomicReference<>();
+
+    private final Object refreshLock = new Object();
+
+    @Value("${app.admin.stats.fresh-min-interval-ms:15000}")
+    private long freshMinIntervalMs;
+
+    /**
+     * Devuelve la foto actual. Con {@code fresh} se recalcula en el momento, salvo que la foto
+     * tenga menos de {@code app.admin.stats.fresh-min-interval-ms}: en ese caso se sirve la existente.
+     * El límite es global, de modo que varios administradores pidiendo datos frescos a la vez
+     * provocan como mucho un recálculo.
+     */
+    public AdminStatsDto getSnapshot(boolean fresh) {
+        AdminStatsDto current = snapshot.get();
+        if (current == null || (fresh && isOlderThan(current, freshMinIntervalMs))) {
+            synchronized (refreshLock) {
+                // Otra petición pudo haber refrescado mientras esperábamos el bloqueo
+                current = snapshot.get();
+                if (current == null || (fresh && isOlderThan(current, freshMinIntervalMs))) {
+                    current = refresh();
+                }
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${app.admin.stats.snapshot-refresh-ms:30000}",
+            initialDelayString = "${app.admin.stats.snapshot-refresh-ms:30000}")
+    public void scheduledRefresh() {
+        synchronized (refreshLock) {
+            refresh();
+        }
+    }
+
+    private AdminStatsDto refresh() {
+        AdminStatsDto stats = adminStatsService.getAllStats();
+        stats.setGeneratedAt(LocalDateTime.now());
+        snapshot.set(stats);
+        if (!stats.getIncompleteSections().isEmpty()) {
+            log.warn("Foto de estadísticas publicada sin las secciones {}", stats.getIncompleteSections());
+        }
+        return stats;
+    }
+
+    private static boolean isOlderThan(AdminStatsDto stats, long millis) {
+        return Duration.between(stats.getGeneratedAt(), LocalDateTime.now()).toMillis() >= millis;
+    }
+}
@@ -0,0 +1,335 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.enrollments.BulkEnrollmentErrorDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.enrollments.BulkEnrollmentRowResultDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.enrollments.BulkEnrollmentRowResultDto.Status;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.enrollments.BulkEnrollmentSummaryDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio para inscribir cohortes completas a un curso a partir de una lista de emails.
+ * La entrada (CSV o JSON) se lee en streaming y se procesa por lotes: un SELECT ... IN para
+ * resolver los usuarios y un batch JDBC de INSERT ... ON DUPLICATE KEY UPDATE por lote. Los resultados por fila se
+ * escriben como NDJSON a medida que se procesan, por lo que la memoria no depende del tamaño del archivo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkEnrollmentService {
+
+    private static final int MAX_EMAIL_LENGTH = 100;
+
+    private final CourseService courseService;
+    private final UserRepository userRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.enrollments.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Valida el curso y los permisos antes de empezar a leer el cuerpo de la petición.
+     */
+    public Course validateCohortEnrollment(Long courseId, User requester) {
+        Course course = courseService.findById(courseId);
+        if (!course.getIsActive()) {
+            throw new IllegalArgumentException("El curso no está disponible para inscripciones");
+        }
+        boolean isAdmin = requester.getRole() == User.Role.ADMIN;
+        boolean isOwner = course.getInstructor() != null
+                && course.getInstructor().getId().equals(requester.getId());
+        if (!isAdmin && !isOwner) {
+            throw new SecurityException("No tienes permisos para inscribir estudiantes en este curso");
+        }
+        return course;
+    }
+
+    /**
+     * Procesa la lista de emails y escribe una línea NDJSON por fila, seguida del resumen. Si la entrada
+     * deja de poder leerse (JSON mal formado, lectura cortada), se aplican las filas ya leídas y se emite
+     * una línea de error antes del resumen.
+     *
+     * @param json true si la entrada es un array JSON, false si es CSV (primera columna)
+     */
+    public BulkEnrollmentSummaryDto enrollCohort(Long courseId, InputStream input, boolean json,
+            OutputStream output) throws IOException {
+        SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(output);
+        EmailReader reader = json ? new JsonEmailReader(objectMapper.getFactory().createParser(input))
+                : new CsvEmailReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+
+        Counters counters = new Counters();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        long row = 0;
+        String readError = null;
+        while (true) {
+            String email;
+            try {
+                email = reader.next();
+            } catch (IOException | IllegalArgumentException e) {
+                // Los lotes anteriores ya se confirmaron: se informa dónde se cortó en vez de truncar la respuesta
+                readError = e instanceof JsonProcessingException parse ? parse.getOriginalMessage() : e.getMessage();
+                break;
+            }
+            if (email == null) {
+                break;
+            }
+            batch.add(new PendingRow(++row, email));
+            if (batch.size() >= batchSize) {
+                processBatch(courseId, batch, counters, writer);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            processBatch(courseId, batch, counters, writer);
+        }
+        if (readError != null) {
+            log.warn("Inscripción masiva en curso {} interrumpida tras {} filas: {}", courseId, row, readError);
+            writer.write(new BulkEnrollmentErrorDto(row + 1, "Entrada no válida: " + readError));
+        }
+
+        BulkEnrollmentSummaryDto summary = BulkEnrollmentSummaryDto.builder()
+                .courseId(courseId)
+                .totalRows(row)
+                .enrolled(counters.enrolled)
+                .alreadyEnrolled(counters.alreadyEnrolled)
+                .failed(counters.failed)
+                .build();
+        writer.write(summary);
+        writer.flush();
+        output.write('\n');
+        output.flush();
+
+        log.info("Inscripción masiva en curso {}: {} filas, {} nuevas, {} existentes, {} con error",
+                courseId, row, counters.enrolled, counters.alreadyEnrolled, counters.failed);
+        return summary;
+    }
+
+    private void processBatch(Long courseId, List<PendingRow> batch, Counters counters, SequenceWriter writer)
+            throws IOException {
+        Set<String> lookups = new LinkedHashSet<>();
+        for (PendingRow pending : batch) {
+            if (isValidEmail(pending.email)) {
+                lookups.add(pending.email);
+            } else {
+                pending.status = Status.INVALID_EMAIL;
+            }
+        }
+
+        Map<String, Object[]> identities = new HashMap<>();
+        if (!lookups.isEmpty()) {
+            for (Object[] identity : userRepository.findIdentitiesByEmailIn(lookups)) {
+                identities.put(((String) identity[0]).toLowerCase(Locale.ROOT), identity);
+            }
+        }
+
+        LocalDateTime now = nextBatchInstant(counters);
+        Map<Long, PendingRow> insertable = new HashMap<>();
+        List<SqlParameterSource> params = new ArrayList<>(batch.size());
+        for (PendingRow pending : batch) {
+            if (pending.status != null) {
+                continue;
+            }
+            Object[] identity = identities.get(pending.email.toLowerCase(Locale.ROOT));
+            if (identity == null) {
+                pending.status = Status.USER_NOT_FOUND;
+            } else if (identity[2] != User.Role.STUDENT) {
+                pending.status = Status.NOT_A_STUDENT;
+            } else if (insertable.putIfAbsent((Long) identity[1], pending) != null) {
+                // Email repetido en el lote: solo la primera aparición puede crear la inscripción
+                pending.status = Status.ALREADY_ENROLLED;
+            } else {
+                params.add(new MapSqlParameterSource()
+                        .addValue("studentId", identity[1])
+                        .addValue("courseId", courseId)
+                        .addValue("paymentId", null, Types.BIGINT)
+                        .addValue("now", now));
+            }
+        }
+
+        if (!params.isEmpty()) {
+            // Con rewriteBatchedStatements el driver devuelve SUCCESS_NO_INFO en cada fila: el resultado
+            // se lee de la tabla en la misma transacción en vez de los conteos del batch
+            Set<Long> created = transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(EnrollmentRepository.INSERT_IF_ABSENT_SQL,
+                        params.toArray(SqlParameterSource[]::new));
+                return new HashSet<>(enrollmentRepository.findStudentIdsCreatedAt(courseId, insertable.keySet(), now));
+            });
+            insertable.forEach((studentId, pending) -> pending.status = created.contains(studentId)
+                    ? Status.ENROLLED : Status.ALREADY_ENROLLED);
+            if (!created.isEmpty()) {
+                eventPublisher.publishEvent(new EnrollmentsCreatedEvent(courseId, created.size()));
+            }
+        }
+
+        for (PendingRow pending : batch) {
+            counters.add(pending.status);
+            writer.write(new BulkEnrollmentRowResultDto(pending.row, pending.email, pending.status));
+        }
+        writer.flush();
+    }
+
+    /**
+     * Instante del lote con la precisión de la columna (microsegundos). Identifica las filas creadas por el
+     * lote, así que dos lotes de la misma carga nunca comparten instante.
+     */
+    private static LocalDateTime nextBatchInstant(Counters counters) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (counters.lastBatchAt != null && !now.isAfter(counters.lastBatchAt)) {
+            now = counters.lastBatchAt.plus(1, ChronoUnit.MICROS);
+        }
+        counters.lastBatchAt = now;
+        return now;
+    }
+
+    private boolean isValidEmail(String email) {
+        int at = email.indexOf('@');
+        return at > 0 && at < email.length() - 1 && email.length() <= MAX_EMAIL_LENGTH;
+    }
+
+    private static String normalize(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            trimmed = trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private static class PendingRow {
+        private final long row;
+        private final String email;
+        private Status status;
+
+        PendingRow(long row, String email) {
+            this.row = row;
+            this.email = email;
+        }
+    }
+
+    private static class Counters {
+        private long enrolled;
+        private long alreadyEnrolled;
+        private long failed;
+        private LocalDateTime lastBatchAt;
+
+        void add(Status status) {
+            switch (status) {
+                case ENROLLED -> enrolled++;
+                case ALREADY_ENROLLED -> alreadyEnrolled++;
+                default -> failed++;
+            }
+        }
+    }
+
+    /** Devuelve el siguiente email de la entrada o null al terminar. */
+    private interface EmailReader {
+        String next() throws IOException;
+    }
+
+    /**
+     * Lee la primera columna de cada línea. Ignora líneas vacías y una cabecera "email".
+     */
+    private static class CsvEmailReader implements EmailReader {
+        private final BufferedReader reader;
+        private boolean firstLine = true;
+
+        CsvEmailReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(',');
+                if (separator < 0) {
+                    separator = line.indexOf(';');
+                }
+                String value = normalize(separator < 0 ? line : line.substring(0, separator));
+                boolean header = firstLine && value.equalsIgnoreCase("email");
+                firstLine = false;
+                if (!value.isEmpty() && !header) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Lee un array JSON de strings o de objetos con campo "email", elemento a elemento.
+     */
+    private static class JsonEmailReader implements EmailReader {
+        private final JsonParser parser;
+        private boolean started;
+
+        JsonEmailReader(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public String next() throws IOException {
+            if (!started) {
+                started = true;
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("Se esperaba un array JSON de emails");
+                }
+            }
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                return normalize(parser.getText());
+            }
+            if (token == JsonToken.START_OBJECT) {
+                JsonNode node = parser.readValueAsTree();
+                JsonNode email = node.get("email");
+                return email != null && email.isTextual() ? normalize(email.asText()) : "";
+            }
+            parser.skipChildren();
+            return "";
+        }
+    }
+}
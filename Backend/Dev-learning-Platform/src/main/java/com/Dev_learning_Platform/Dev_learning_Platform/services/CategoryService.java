@@ -3,6 +3,7 @@ package com.Dev_learning_Platform.Dev_learning_Platform.services;
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.CategoryPublicDto;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,14 +21,21 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryStatsService categoryStatsService;
+
 
     @Transactional(readOnly = true)
     public List<CategoryPublicDto> getAllActiveCategories() {
         List<Category> categories = categoryRepository.findAllActiveOrdered();
-        return categories.stream().map(this::toCategoryPublicDto).toList();
+        // Conteo de cursos de todas las categorías con una sola consulta agrupada (cacheada)
+        Map<Long, Long> courseCounts = categoryStatsService.getPublishedCourseCounts();
+        return categories.stream()
+                .map(category -> toCategoryPublicDto(category, courseCounts.getOrDefault(category.getId(), 0L)))
+                .toList();
     }
 
-    private CategoryPublicDto toCategoryPublicDto(Category category) {
+    private CategoryPublicDto toCategoryPublicDto(Category category, long courseCount) {
         List<CategoryPublicDto.SubcategoryPublicDto> subDtos = category.getSubcategories() != null ?
             category.getSubcategories().stream().map(sub ->
                 new CategoryPublicDto.SubcategoryPublicDto(
@@ -48,7 +56,8 @@ public class CategoryService {
             category.getColor(),
             category.getIsActive(),
             category.getSortOrder(),
-            subDtos
+            subDtos,
+            courseCount
         );
     }
 
@@ -0,0 +1,122 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.CategoryDistributionDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.CategoryStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseStateChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CategoryRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Estadísticas por categoría (cursos, inscripciones, alumnos) calculadas con una única consulta agrupada.
+ * El resultado se guarda en memoria y lo comparten el panel de administración y el listado público
+ * de categorías; se descarta cuando un curso cambia de estado o al vencer el TTL. Se lee del primario
+ * para no volver a cachear desde la réplica el estado anterior al cambio que provocó el descarte.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryStatsService {
+
+    private final CategoryRepository categoryRepository;
+
+    private final AtomicReference<Cached> cache = new AtomicReference<>();
+
+    @Value("${app.categories.stats.cache-ttl-ms:60000}")
+    private long cacheTtlMs;
+
+    private record Cached(List<CategoryStatsDto> stats, boolean[] active, LocalDateTime loadedAt) {
+    }
+
+    /**
+     * Estadísticas de todas las categorías, en el orden de la UI (sortOrder, nombre)
+     */
+    @Transactional
+    public List<CategoryStatsDto> getCategoryStats() {
+        return load().stats();
+    }
+
+    /**
+     * Distribución de cursos e inscripciones por categoría para el panel de administración
+     */
+    @Transactional
+    public CategoryDistributionDto getDistribution() {
+        List<CategoryStatsDto> stats = getCategoryStats();
+        Map<String, Long> courses = new LinkedHashMap<>();
+        Map<String, Long> enrollments = new LinkedHashMap<>();
+        for (CategoryStatsDto category : stats) {
+            courses.put(category.getCategoryName(), category.getTotalCourses());
+            enrollments.put(category.getCategoryName(), category.getTotalEnrollments());
+        }
+        return CategoryDistributionDto.builder()
+                .coursesByCategory(courses)
+                .enrollmentsByCategory(enrollments)
+                .categories(stats)
+                .build();
+    }
+
+    /**
+     * Cursos publicados por categoría activa, para el listado público
+     */
+    @Transactional
+    public Map<Long, Long> getPublishedCourseCounts() {
+        Cached cached = load();
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < cached.stats().size(); i++) {
+            if (cached.active()[i]) {
+                CategoryStatsDto category = cached.stats().get(i);
+                counts.put(category.getCategoryId(), category.getPublishedCourses());
+            }
+        }
+        return counts;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseStateChanged(CourseStateChangedEvent event) {
+        cache.set(null);
+    }
+
+    private Cached load() {
+        Cached cached = cache.get();
+        if (cached != null && Duration.between(cached.loadedAt(), LocalDateTime.now()).toMillis() < cacheTtlMs) {
+            return cached;
+        }
+        List<Object[]> rows = categoryRepository.aggregateCategoryStats();
+        List<CategoryStatsDto> stats = new ArrayList<>(rows.size());
+        boolean[] active = new boolean[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            active[i] = Boolean.TRUE.equals(row[4]);
+            stats.add(new CategoryStatsDto(
+                    (Long) row[0],
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    toLong(row[5]),
+                    toLong(row[6]),
+                    toLong(row[7]),
+                    toLong(row[8]),
+                    row[9] == null ? 0.0 : ((Number) row[9]).doubleValue(),
+                    toLong(row[10])));
+        }
+        Cached loaded = new Cached(List.copyOf(stats), active, LocalDateTime.now());
+        cache.set(loaded);
+        return loaded;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,89 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Comprueba que los agregados de videos guardados en cada curso (lecciones activas, duración total y
+ * lección más larga) coinciden con los videos activos, y recalcula los cursos que no cuadran.
+ * Se ejecuta al arrancar, lo que además rellena los cursos creados antes de existir estas columnas.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseAggregateChecker {
+
+    private static final int REPAIR_CHUNK_SIZE = 500;
+
+    private final CourseRepository courseRepository;
+    private final CourseVideoRepository courseVideoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private record Aggregates(long lessons, long durationSeconds, long longestSeconds) {
+        static final Aggregates EMPTY = new Aggregates(0, 0, 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkOnStartup() {
+        check();
+    }
+
+    /**
+     * @return número de cursos corregidos
+     */
+    @Scheduled(cron = "${app.courses.aggregates.check-cron:0 15 3 * * *}")
+    public int check() {
+        try {
+            Integer repaired = transactionTemplate.execute(status -> compareAndRepair());
+            return repaired != null ? repaired : 0;
+        } catch (RuntimeException e) {
+            log.error("❌ Error comprobando los agregados de videos de los cursos: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    private int compareAndRepair() {
+        Map<Long, Aggregates> actual = new HashMap<>();
+        for (Object[] row : courseVideoRepository.aggregateActiveByCourse()) {
+            actual.put((Long) row[0], new Aggregates(toLong(row[1]), toLong(row[2]), toLong(row[3])));
+        }
+        List<Long> drifted = new ArrayList<>();
+        for (Object[] row : courseRepository.findVideoAggregates()) {
+            Long courseId = (Long) row[0];
+            Aggregates stored = new Aggregates(toLong(row[1]), toLong(row[2]), toLong(row[3]));
+            Aggregates expected = actual.getOrDefault(courseId, Aggregates.EMPTY);
+            if (!Objects.equals(stored, expected)) {
+                log.warn("Agregados de videos desviados en el curso {}: guardados {}, reales {}",
+                        courseId, stored, expected);
+                drifted.add(courseId);
+            }
+        }
+        if (!drifted.isEmpty()) {
+            for (int from = 0; from < drifted.size(); from += REPAIR_CHUNK_SIZE) {
+                courseRepository.recomputeVideoAggregates(
+                        drifted.subList(from, Math.min(from + REPAIR_CHUNK_SIZE, drifted.size())));
+            }
+            log.info("Agregados de videos recalculados en {} cursos", drifted.size());
+        }
+        return drifted.size();
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
@@ -3,17 +3,19 @@ package com.Dev_learning_Platform.Dev_learning_Platform.services;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.CourseCreateDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseStateChangedEvent;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Category;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
-import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Subcategory;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
 import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
@@ -32,6 +34,8 @@ public class CourseService {
     private final CategoryService categoryService;
     private final SubcategoryService subcategoryService;
     private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentSuspensionService enrollmentSuspensionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     @Lazy
@@ -59,7 +63,9 @@ public class CourseService {
         }
 
         Course course = mapDtoToEntity(courseDto, instructor, category, subcategory);
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        publishStateChange(saved.getId(), null, CourseStateChangedEvent.State.of(saved));
+        return saved;
     }
 
     public List<Course> getPublicCourses() {
@@ -146,6 +152,17 @@ public class CourseService {
 
     @Transactional
     public Course updateCourse(Long courseId, CourseCreateDto courseDto) {
+        return updateCourseAtVersion(courseId, courseDto, null);
+    }
+
+    /**
+     * Actualiza el curso solo si sigue en {@code expectedVersion} (sin comprobación si es null). Dos
+     * ediciones simultáneas desde la misma versión no se pisan: la segunda falla con conflicto.
+     *
+     * @throws ObjectOptimisticLockingFailureException si el curso cambió desde esa versión
+     */
+    @Transactional
+    public Course updateCourseAtVersion(Long courseId, CourseCreateDto courseDto, Long expectedVersion) {
         Course existingCourse = findById(courseId);
 
         User authenticatedUser = userService.getAuthenticatedUser();
@@ -155,6 +172,9 @@ public class CourseService {
         if (!isAdmin && !isOwner) {
             throw new AccessDeniedException("No tienes permisos para editar este curso.");
         }
+        if (expectedVersion != null && !expectedVersion.equals(existingCourse.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Course.class, courseId);
+        }
 
         User instructor = userService.findById(courseDto.getInstructorId());
         Category category = categoryService.getCategoryById(courseDto.getCategoryId())
@@ -169,6 +189,8 @@ public class CourseService {
                     "La subcategoría no pertenece a la categoría especificada");
         }
 
+        CourseStateChangedEvent.State before = CourseStateChangedEvent.State.of(existingCourse);
+
         // Actualizar los campos del curso existente
         existingCourse.setTitle(courseDto.getTitle());
         existingCourse.setDescription(courseDto.getDescription());
@@ -184,7 +206,10 @@ public class CourseService {
         existingCourse.setIsActive(courseDto.getIsActive());
         existingCourse.setEstimatedHours(courseDto.getEstimatedHours());
 
-        return courseRepository.save(existingCourse);
+        // Flush inmediato: la respuesta lleva la versión nueva y un conflicto se detecta aquí
+        Course saved = courseRepository.saveAndFlush(existingCourse);
+        publishStateChange(courseId, before, CourseStateChangedEvent.State.of(saved));
+        return saved;
     }
 
     @Transactional
@@ -200,15 +225,13 @@ public class CourseService {
         }
 
         // Desactivar el curso
+        CourseStateChangedEvent.State before = CourseStateChangedEvent.State.of(existingCourse);
         existingCourse.setIsActive(false);
         courseRepository.save(existingCourse);
+        publishStateChange(courseId, before, CourseStateChangedEvent.State.of(existingCourse));
 
-        // Desactivar inscripciones asociadas
-        List<Enrollment> enrollments = enrollmentRepository.findByCourse(existingCourse);
-        for (Enrollment enrollment : enrollments) {
-            enrollment.setStatus(Enrollment.EnrollmentStatus.SUSPENDED);
-            enrollmentRepository.save(enrollment);
-        }
+        // Suspender inscripciones asociadas con un UPDATE masivo (por bloques si el curso es grande)
+        enrollmentSuspensionService.suspendCourseEnrollments(courseId);
     }
 
     /**
@@ -263,6 +286,8 @@ public class CourseService {
                     "La subcategoría no pertenece a la categoría especificada");
         }
 
+        CourseStateChangedEvent.State before = CourseStateChangedEvent.State.of(course);
+
         // Actualizar los campos del curso desde el DTO
         course.setTitle(courseDto.getTitle());
         course.setDescription(courseDto.getDescription());
@@ -278,7 +303,9 @@ public class CourseService {
         course.setThumbnailUrl(courseDto.getThumbnailUrl());
         course.setYoutubeUrls(courseDto.getYoutubeUrls());
 
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        publishStateChange(courseId, before, CourseStateChangedEvent.State.of(saved));
+        return saved;
     }
 
     /**
@@ -312,7 +339,9 @@ public class CourseService {
                             + activeEnrollments + " inscripciones activas.");
         }
 
+        CourseStateChangedEvent.State before = CourseStateChangedEvent.State.of(course);
         courseRepository.delete(course);
+        publishStateChange(courseId, before, null);
     }
 
     @Transactional
@@ -327,7 +356,17 @@ public class CourseService {
             throw new AccessDeniedException("No tienes permisos para modificar este curso.");
         }
         
+        CourseStateChangedEvent.State before = CourseStateChangedEvent.State.of(course);
         course.setIsPublished(!course.getIsPublished());
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        publishStateChange(courseId, before, CourseStateChangedEvent.State.of(saved));
+        return saved;
+    }
+
+    private void publishStateChange(Long courseId, CourseStateChangedEvent.State before,
+            CourseStateChangedEvent.State after) {
+        if (before == null || !before.equals(after)) {
+            eventPublisher.publishEvent(new CourseStateChangedEvent(courseId, before, after));
+        }
     }
 }
@@ -0,0 +1,174 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.CourseSyllabusDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.LessonDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.SyllabusVideoDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseStateChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseVideoChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Temario de los cursos (videos activos en orden) servido desde memoria.
+ * Cada entrada es una foto inmutable con la versión de contenido del curso; se descarta cuando se confirma
+ * un cambio de videos y, para los cambios hechos en otras instancias, al vencer el TTL.
+ *
+ * <p>El permiso de acceso (instructor del curso, rol o inscripción) se resuelve con una sola consulta y se
+ * cachea por usuario y curso, así que una página de lección ya visitada no lanza SQL. Como una baja no
+ * quita el acceso, solo las inscripciones nuevas invalidan permisos.
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseSyllabusService {
+
+    private static final int SWEEP_EVERY_WRITES = 1024;
+
+    private final CourseRepository courseRepository;
+    private final CourseVideoRepository courseVideoRepository;
+
+    private final Map<Long, CachedSyllabus> syllabi = new ConcurrentHashMap<>();
+    private final Map<AccessKey, CachedAccess> access = new ConcurrentHashMap<>();
+    // Suben con cada invalidación: una carga que se cruza con una invalidación se devuelve pero no se guarda
+    private final AtomicLong syllabusGeneration = new AtomicLong();
+    private final AtomicLong accessGeneration = new AtomicLong();
+    private final AtomicLong accessWrites = new AtomicLong();
+
+    @Value("${app.courses.syllabus.cache-ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    @Value("${app.courses.syllabus.access-ttl-ms:60000}")
+    private long accessTtlMs;
+
+    private record CachedSyllabus(CourseSyllabusDto syllabus, long expiresAtNanos) {
+    }
+
+    private record AccessKey(String email, Long courseId) {
+    }
+
+    private record CachedAccess(boolean allowed, long expiresAtNanos) {
+    }
+
+    /**
+     * Temario del curso. Con {@code email} null (visitante anónimo) no se comprueba el acceso.
+     */
+    public CourseSyllabusDto getSyllabus(Long courseId, String email) {
+        CourseSyllabusDto syllabus = loadSyllabus(courseId);
+        if (email != null && !canView(email, courseId)) {
+            throw new SecurityException("Debes estar inscrito en el curso para acceder a los videos");
+        }
+        return syllabus;
+    }
+
+    /**
+     * Lección del temario con la anterior y la siguiente, resueltas sobre el temario cacheado.
+     *
+     * @throws IllegalArgumentException si el curso no existe o el video no es una lección activa del curso
+     */
+    public LessonDto getLesson(Long courseId, Long videoId, String email) {
+        CourseSyllabusDto syllabus = getSyllabus(courseId, email);
+        List<SyllabusVideoDto> videos = syllabus.getVideos();
+        for (int i = 0; i < videos.size(); i++) {
+            if (videos.get(i).getId().equals(videoId)) {
+                return new LessonDto(courseId, syllabus.getContentVersion(), i + 1, videos.size(), videos.get(i),
+                        i > 0 ? videos.get(i - 1) : null,
+                        i + 1 < videos.size() ? videos.get(i + 1) : null);
+            }
+        }
+        throw new IllegalArgumentException("Lección no encontrada con ID: " + videoId);
+    }
+
+    private CourseSyllabusDto loadSyllabus(Long courseId) {
+        long now = System.nanoTime();
+        CachedSyllabus cached = syllabi.get(courseId);
+        if (cached != null && cached.expiresAtNanos() - now > 0) {
+            return cached.syllabus();
+        }
+        long generation = syllabusGeneration.get();
+        Long version = courseRepository.findContentVersionById(courseId)
+                .orElseThrow(() -> new IllegalArgumentException("Curso no encontrado con ID: " + courseId));
+        List<SyllabusVideoDto> videos = courseVideoRepository.findSyllabusByCourseId(courseId);
+        CourseSyllabusDto syllabus = new CourseSyllabusDto(courseId, version, List.copyOf(videos));
+        if (syllabusGeneration.get() == generation) {
+            syllabi.put(courseId, new CachedSyllabus(syllabus, now + TimeUnit.MILLISECONDS.toNanos(cacheTtlMs)));
+        }
+        return syllabus;
+    }
+
+    /**
+     * Si el usuario puede ver las lecciones del curso (cacheado por usuario y curso).
+     */
+    public boolean canView(String email, Long courseId) {
+        long now = System.nanoTime();
+        AccessKey key = new AccessKey(email, courseId);
+        CachedAccess cached = access.get(key);
+        if (cached != null && cached.expiresAtNanos() - now > 0) {
+            return cached.allowed();
+        }
+        long generation = accessGeneration.get();
+        boolean allowed = resolveAccess(email, courseId);
+        if (accessGeneration.get() == generation) {
+            access.put(key, new CachedAccess(allowed, now + TimeUnit.MILLISECONDS.toNanos(accessTtlMs)));
+            if (accessWrites.incrementAndGet() % SWEEP_EVERY_WRITES == 0) {
+                access.values().removeIf(entry -> entry.expiresAtNanos() - now < 0);
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * Mismas reglas que antes: el instructor del curso y los roles distintos de alumno acceden siempre;
+     * un alumno necesita una inscripción en el curso.
+     */
+    private boolean resolveAccess(String email, Long courseId) {
+        List<Object[]> rows = courseRepository.findSyllabusAccess(email, courseId);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        Object[] row = rows.get(0);
+        return row[0].equals(row[2])
+                || row[1] != User.Role.STUDENT
+                || ((Number) row[3]).longValue() > 0;
+    }
+
+    // ----- Invalidación -----
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseVideoChanged(CourseVideoChangedEvent event) {
+        evictSyllabus(event.getCourseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseStateChanged(CourseStateChangedEvent event) {
+        evictSyllabus(event.getCourseId());
+        evictAccess(event.getCourseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsCreated(EnrollmentsCreatedEvent event) {
+        evictAccess(event.getCourseId());
+    }
+
+    private void evictSyllabus(Long courseId) {
+        syllabusGeneration.incrementAndGet();
+        syllabi.remove(courseId);
+    }
+
+    private void evictAccess(Long courseId) {
+        accessGeneration.incrementAndGet();
+        access.keySet().removeIf(key -> key.courseId().equals(courseId));
+    }
+}
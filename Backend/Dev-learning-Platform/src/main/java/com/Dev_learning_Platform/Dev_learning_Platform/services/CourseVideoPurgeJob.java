@@ -0,0 +1,99 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Purga nocturna de videos dados de baja: los que llevan más de {@code inactive-days} inactivos se copian a
+ * {@code course_videos_archive} y se borran del temario, por bloques de IDs y cada bloque en su propia
+ * transacción. Después se compacta el {@code orderIndex} de los cursos afectados.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseVideoPurgeJob {
+
+    private final CourseVideoRepository courseVideoRepository;
+    private final CourseVideoService courseVideoService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.course-videos.purge.inactive-days:90}")
+    private int inactiveDays;
+
+    @Value("${app.course-videos.purge.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * @return número de videos archivados
+     */
+    @Scheduled(cron = "${app.course-videos.purge.cron:0 30 3 * * *}")
+    public int purge() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(inactiveDays);
+        Set<Long> courseIds = new TreeSet<>();
+        int archived = 0;
+        try {
+            Integer stamped = transactionTemplate.execute(status -> courseVideoRepository.stampUndatedInactive(now));
+            if (stamped != null && stamped > 0) {
+                log.info("{} videos dados de baja sin fecha empiezan a contar para la purga", stamped);
+            }
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff, now, courseIds));
+                if (moved == null || moved == 0) {
+                    break;
+                }
+                archived += moved;
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Error purgando videos dados de baja: {}", e.getMessage(), e);
+        }
+
+        // Los cursos ya purgados se compactan aunque un bloque posterior haya fallado
+        for (Long courseId : courseIds) {
+            try {
+                courseVideoService.compactOrder(courseId);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo compactar el orden de los videos del curso {}: {}", courseId, e.getMessage());
+            }
+        }
+        if (archived > 0) {
+            log.info("Archivados {} videos dados de baja antes de {} en {} cursos", archived, cutoff, courseIds.size());
+        }
+        return archived;
+    }
+
+    private int archiveChunk(LocalDateTime cutoff, LocalDateTime now, Set<Long> courseIds) {
+        List<Object[]> candidates = courseVideoRepository.findPurgeCandidates(cutoff, PageRequest.of(0, chunkSize));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(candidates.size());
+        for (Object[] row : candidates) {
+            ids.add((Long) row[0]);
+            courseIds.add((Long) row[1]);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", now);
+        jdbcTemplate.update(CourseVideoRepository.ARCHIVE_INACTIVE_SQL, params);
+        // Un video reactivado entre la lectura y el borrado no se archiva ni se borra
+        return jdbcTemplate.update(CourseVideoRepository.DELETE_INACTIVE_SQL, params);
+    }
+}
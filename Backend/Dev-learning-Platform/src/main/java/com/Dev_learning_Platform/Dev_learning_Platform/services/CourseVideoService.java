@@ -1,29 +1,61 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.services;
 
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.CourseVideoDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.VideoImportErrorDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.VideoImportItemDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.VideoImportResultDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseVideoChangedEvent;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
-import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
 import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class CourseVideoService {
 
     private final CourseVideoRepository courseVideoRepository;
+    private final CourseRepository courseRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
     private final CourseService courseService;
-    private final EnrollmentService enrollmentService;
-    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.course-videos.import.max-items:500}")
+    private int maxImportItems;
+
+    @Value("${app.thumbnails.public-url:/api/thumbnails}")
+    private String thumbnailsPublicUrl;
 
     @Transactional
     public CourseVideo addVideoToCourse(CourseVideoDto videoDto, Long instructorId) {
@@ -52,29 +84,130 @@ public class CourseVideoService {
         video.setDurationSeconds(videoDto.getDurationSeconds());
         video.setCourse(course);
         
-        video.setThumbnailUrl("https://img.youtube.com/vi/" + videoId + "/maxresdefault.jpg");
+        video.setThumbnailUrl(thumbnailUrl(videoId));
 
-        return courseVideoRepository.save(video);
+        CourseVideo saved = courseVideoRepository.save(video);
+        courseRepository.applyVideoChange(course.getId(), 1, durationOf(saved), (int) durationOf(saved));
+        eventPublisher.publishEvent(new CourseVideoChangedEvent(course.getId(), 1, durationOf(saved)));
+        return saved;
     }
 
-    public List<CourseVideo> getVideosByCourse(Long courseId, Long studentId) {
+    /**
+     * Importa un manifiesto ordenado de videos al final del temario del curso. Todo se valida antes de
+     * escribir: si alguna lección tiene errores no se importa ninguna y se devuelven los errores por
+     * posición. Las altas van en un único batch JDBC, con {@code orderIndex} contiguos.
+     */
+    @Transactional
+    public VideoImportResultDto importVideos(Long courseId, List<VideoImportItemDto> items, Long instructorId) {
+        Course course = courseService.findById(courseId);
+        if (!course.getInstructor().getId().equals(instructorId)) {
+            throw new SecurityException("Solo el instructor del curso puede importar videos");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("El manifiesto no contiene videos");
+        }
+        if (items.size() > maxImportItems) {
+            throw new IllegalArgumentException("El manifiesto no puede superar " + maxImportItems + " videos");
+        }
 
-        if (studentId != null) {
-            User user = userService.findById(studentId);
-            
-            Course course = courseService.findById(courseId);
-            if (course.getInstructor().getId().equals(studentId)) {
-                return courseVideoRepository.findByCourseIdAndIsActiveOrderByOrderIndexAsc(courseId, true);
+        // Videos ya presentes en el curso: reimportar la misma playlist no duplica lecciones
+        Set<String> youtubeIds = new HashSet<>(courseVideoRepository.findActiveYoutubeVideoIds(courseId));
+        int firstOrderIndex = courseVideoRepository.findMaxActiveOrderIndex(courseId) + 1;
+        List<VideoImportErrorDto> errors = new ArrayList<>();
+        List<SqlParameterSource> rows = new ArrayList<>(items.size());
+        long totalDuration = 0;
+        int longestDuration = 0;
+        for (int i = 0; i < items.size(); i++) {
+            VideoImportItemDto item = items.get(i);
+            String error = validateImportItem(item);
+            String videoId = null;
+            if (error == null) {
+                videoId = CourseVideo.extractVideoId(item.getYoutubeUrl().trim());
+                if (videoId == null) {
+                    error = "URL de YouTube inválida";
+                } else if (!youtubeIds.add(videoId)) {
+                    error = "El video ya está en el curso o repetido en el manifiesto";
+                }
             }
+            if (error != null) {
+                errors.add(new VideoImportErrorDto(i, item != null ? item.getYoutubeUrl() : null, error));
+                continue;
+            }
+            rows.add(new MapSqlParameterSource()
+                    .addValue("title", item.getTitle().trim())
+                    .addValue("description", item.getDescription(), Types.VARCHAR)
+                    .addValue("youtubeUrl", item.getYoutubeUrl().trim())
+                    .addValue("youtubeVideoId", videoId)
+                    .addValue("orderIndex", firstOrderIndex + rows.size())
+                    .addValue("durationSeconds", item.getDurationSeconds(), Types.INTEGER)
+                    .addValue("thumbnailUrl", thumbnailUrl(videoId))
+                    .addValue("courseId", courseId));
+            int duration = item.getDurationSeconds() != null ? item.getDurationSeconds() : 0;
+            totalDuration += duration;
+            longestDuration = Math.max(longestDuration, duration);
+        }
+        if (!errors.isEmpty()) {
+            return new VideoImportResultDto(courseId, 0, null, null, errors);
+        }
 
-            if (user.getRole() == User.Role.STUDENT) {
-                if (!enrollmentService.isStudentEnrolled(studentId, courseId)) {
-                    throw new SecurityException("Debes estar inscrito en el curso para acceder a los videos");
-                }
+        jdbcTemplate.batchUpdate(CourseVideoRepository.INSERT_SQL, rows.toArray(SqlParameterSource[]::new));
+        courseRepository.applyVideoChange(courseId, rows.size(), totalDuration, longestDuration);
+        eventPublisher.publishEvent(new CourseVideoChangedEvent(courseId, rows.size(), totalDuration));
+        return new VideoImportResultDto(courseId, rows.size(), firstOrderIndex,
+                firstOrderIndex + rows.size() - 1, List.of());
+    }
+
+    private static String validateImportItem(VideoImportItemDto item) {
+        if (item == null) {
+            return "Lección vacía";
+        }
+        if (item.getTitle() == null || item.getTitle().isBlank()) {
+            return "El título del video es obligatorio";
+        }
+        if (item.getTitle().trim().length() > 200) {
+            return "El título no puede exceder 200 caracteres";
+        }
+        if (item.getDescription() != null && item.getDescription().length() > 1000) {
+            return "La descripción no puede exceder 1000 caracteres";
+        }
+        if (item.getYoutubeUrl() == null || item.getYoutubeUrl().isBlank()) {
+            return "La URL de YouTube es obligatoria";
+        }
+        if (item.getYoutubeUrl().trim().length() > 500) {
+            return "La URL no puede exceder 500 caracteres";
+        }
+        if (item.getDurationSeconds() != null
+                && (item.getDurationSeconds() <= 0 || item.getDurationSeconds() > getMaxVideoDuration())) {
+            return "La duración debe estar entre 1 y " + getMaxVideoDuration() + " segundos";
+        }
+        return null;
+    }
+
+    // Miniatura servida por el proxy con caché en disco, no directamente desde YouTube
+    private String thumbnailUrl(String youtubeVideoId) {
+        return thumbnailsPublicUrl + "/" + youtubeVideoId;
+    }
+
+    /**
+     * Al arrancar, pasa al proxy las miniaturas guardadas con otra URL: los videos anteriores al proxy
+     * apuntan a img.youtube.com, y un cambio de {@code app.thumbnails.public-url} deja las demás desfasadas.
+     *
+     * @return número de videos corregidos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)   // escribe en su propia transacción, no en la de lectura
+    public int backfillThumbnailUrls() {
+        try {
+            Integer updated = transactionTemplate.execute(status ->
+                    courseVideoRepository.rewriteThumbnailUrls(thumbnailsPublicUrl));
+            if (updated != null && updated > 0) {
+                log.info("URL de miniatura actualizada en {} videos", updated);
             }
+            return updated != null ? updated : 0;
+        } catch (RuntimeException e) {
+            log.error("❌ Error actualizando las URL de miniatura de los videos: {}", e.getMessage(), e);
+            return 0;
         }
-        
-        return courseVideoRepository.findByCourseIdAndIsActiveOrderByOrderIndexAsc(courseId, true);
     }
 
     public List<CourseVideo> getVideosByCourse(Long courseId) {
@@ -88,11 +221,27 @@ public class CourseVideoService {
 
     @Transactional
     public CourseVideo updateVideo(Long videoId, CourseVideoDto videoDto, Long instructorId) {
+        return updateVideo(videoId, videoDto, instructorId, null);
+    }
+
+    /**
+     * Actualiza los campos no nulos del video. Con {@code expectedVersion} la edición solo se aplica si el
+     * video sigue en esa versión; la columna {@code @Version} cubre además la carrera entre la lectura y
+     * el guardado.
+     *
+     * @throws ObjectOptimisticLockingFailureException si otro cambio se guardó antes
+     */
+    @Transactional
+    public CourseVideo updateVideo(Long videoId, CourseVideoDto videoDto, Long instructorId, Long expectedVersion) {
         CourseVideo existingVideo = getVideoById(videoId);
         
         if (!existingVideo.getCourse().getInstructor().getId().equals(instructorId)) {
             throw new SecurityException("Solo el instructor del curso puede editar videos");
         }
+        if (expectedVersion != null && !expectedVersion.equals(existingVideo.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(CourseVideo.class, videoId);
+        }
+        long previousDuration = durationOf(existingVideo);
 
         if (videoDto.getTitle() != null) {
             existingVideo.setTitle(videoDto.getTitle());
@@ -110,7 +259,7 @@ public class CourseVideoService {
             }
             existingVideo.setYoutubeUrl(videoDto.getYoutubeUrl());
             existingVideo.setYoutubeVideoId(newVideoId);
-            existingVideo.setThumbnailUrl("https://img.youtube.com/vi/" + newVideoId + "/maxresdefault.jpg");
+            existingVideo.setThumbnailUrl(thumbnailUrl(newVideoId));
         }
         
         if (videoDto.getDurationSeconds() != null) {
@@ -120,7 +269,22 @@ public class CourseVideoService {
             existingVideo.setDurationSeconds(videoDto.getDurationSeconds());
         }
 
-        return courseVideoRepository.save(existingVideo);
+        // Flush inmediato: la respuesta lleva la versión nueva y un conflicto se detecta aquí
+        CourseVideo saved = courseVideoRepository.saveAndFlush(existingVideo);
+        Long courseId = saved.getCourse().getId();
+        // Un video dado de baja no cuenta en los agregados del curso
+        boolean active = Boolean.TRUE.equals(saved.getIsActive());
+        long durationDelta = active ? durationOf(saved) - previousDuration : 0L;
+        courseRepository.applyVideoChange(courseId, 0, durationDelta, active ? (int) durationOf(saved) : 0);
+        if (durationDelta < 0) {
+            courseRepository.recomputeLongestLesson(courseId);
+        }
+        eventPublisher.publishEvent(new CourseVideoChangedEvent(courseId, 0, durationDelta));
+        return saved;
+    }
+
+    private static long durationOf(CourseVideo video) {
+        return video.getDurationSeconds() != null ? video.getDurationSeconds() : 0L;
     }
 
     @Transactional
@@ -131,10 +295,51 @@ public class CourseVideoService {
             throw new SecurityException("Solo el instructor del curso puede eliminar videos");
         }
 
+        if (!Boolean.TRUE.equals(video.getIsActive())) {
+            return;
+        }
+
         video.setIsActive(false);
+        video.setDeactivatedAt(LocalDateTime.now());
         courseVideoRepository.save(video);
+        Long courseId = video.getCourse().getId();
+        long duration = durationOf(video);
+        courseRepository.applyVideoChange(courseId, -1, -duration, 0);
+        if (duration > 0) {
+            courseRepository.recomputeLongestLesson(courseId);
+        }
+        eventPublisher.publishEvent(new CourseVideoChangedEvent(courseId, -1, -duration));
+    }
+
+    /**
+     * Vuelve a activar un video dado de baja, al final del temario.
+     */
+    @Transactional
+    public CourseVideo reactivateVideo(Long videoId, Long instructorId) {
+        CourseVideo video = getVideoById(videoId);
+
+        if (!video.getCourse().getInstructor().getId().equals(instructorId)) {
+            throw new SecurityException("Solo el instructor del curso puede reactivar videos");
+        }
+        if (Boolean.TRUE.equals(video.getIsActive())) {
+            return video;
+        }
+
+        Long courseId = video.getCourse().getId();
+        video.setOrderIndex(courseVideoRepository.findMaxActiveOrderIndex(courseId) + 1);
+        video.setIsActive(true);
+        video.setDeactivatedAt(null);
+        CourseVideo saved = courseVideoRepository.save(video);
+        courseRepository.applyVideoChange(courseId, 1, durationOf(saved), (int) durationOf(saved));
+        eventPublisher.publishEvent(new CourseVideoChangedEvent(courseId, 1, durationOf(saved)));
+        return saved;
     }
 
+    /**
+     * Reordena los videos activos del curso. {@code videoIds} debe contener exactamente esos videos,
+     * sin repetir; el orden actual se lee con una consulta y solo se escriben, en un único batch JDBC,
+     * los videos cuya posición cambia.
+     */
     @Transactional
     public void reorderVideos(Long courseId, List<Long> videoIds, Long instructorId) {
         Course course = courseService.findById(courseId);
@@ -142,16 +347,62 @@ public class CourseVideoService {
             throw new SecurityException("Solo el instructor del curso puede reordenar videos");
         }
 
+        Map<Long, Integer> currentOrder = new HashMap<>();
+        for (Object[] row : courseVideoRepository.findActiveOrderByCourseId(courseId)) {
+            currentOrder.put((Long) row[0], (Integer) row[1]);
+        }
+        if (videoIds == null || videoIds.size() != currentOrder.size()
+                || !new HashSet<>(videoIds).equals(currentOrder.keySet())) {
+            throw new IllegalArgumentException(
+                    "La lista debe contener cada video activo del curso exactamente una vez");
+        }
+
+        List<SqlParameterSource> changes = new ArrayList<>();
         for (int i = 0; i < videoIds.size(); i++) {
-            Optional<CourseVideo> videoOpt = courseVideoRepository.findById(videoIds.get(i));
-            if (videoOpt.isPresent()) {
-                CourseVideo video = videoOpt.get();
-                if (video.getCourse().getId().equals(courseId)) {
-                    video.setOrderIndex(i + 1);
-                    courseVideoRepository.save(video);
-                }
+            Long videoId = videoIds.get(i);
+            if (!Objects.equals(currentOrder.get(videoId), i + 1)) {
+                changes.add(new MapSqlParameterSource()
+                        .addValue("orderIndex", i + 1)
+                        .addValue("id", videoId)
+                        .addValue("courseId", courseId));
             }
         }
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(CourseVideoRepository.UPDATE_ORDER_SQL, changes.toArray(SqlParameterSource[]::new));
+        courseRepository.incrementContentVersion(courseId);
+        eventPublisher.publishEvent(new CourseVideoChangedEvent(courseId, 0, 0));
+    }
+
+    /**
+     * Renumera los videos activos del curso como 1..n conservando su orden, para cerrar los huecos que
+     * dejan las bajas. Solo escribe, en un batch JDBC, los videos cuya posición cambia.
+     *
+     * @return número de videos renumerados
+     */
+    @Transactional
+    public int compactOrder(Long courseId) {
+        List<Object[]> rows = new ArrayList<>(courseVideoRepository.findActiveOrderByCourseId(courseId));
+        // Mismo orden que el temario: order_index y, a igualdad, id
+        rows.sort(Comparator.<Object[], Integer>comparing(row -> (Integer) row[1])
+                .thenComparing(row -> (Long) row[0]));
+        List<SqlParameterSource> changes = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (!Objects.equals(rows.get(i)[1], i + 1)) {
+                changes.add(new MapSqlParameterSource()
+                        .addValue("orderIndex", i + 1)
+                        .addValue("id", rows.get(i)[0])
+                        .addValue("courseId", courseId));
+            }
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(CourseVideoRepository.UPDATE_ORDER_SQL, changes.toArray(SqlParameterSource[]::new));
+        courseRepository.incrementContentVersion(courseId);
+        eventPublisher.publishEvent(new CourseVideoChangedEvent(courseId, 0, 0));
+        return changes.size();
     }
 
     public boolean canManageVideos(Long courseId, Long userId) {
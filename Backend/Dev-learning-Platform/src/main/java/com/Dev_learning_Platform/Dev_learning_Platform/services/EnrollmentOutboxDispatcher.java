@@ -0,0 +1,244 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentLifecycleEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent.Status;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentOutboxEventRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consume la tabla outbox de inscripciones y publica cada evento como {@link EnrollmentLifecycleEvent}.
+ * Los eventos de una misma inscripción se entregan en orden en un hilo virtual; inscripciones distintas
+ * se procesan en paralelo. La entrega es "al menos una vez".
+ *
+ * <p>Cada pasada reclama sus filas ({@code claim_token}/{@code claimed_until}) antes de entregarlas, así
+ * varias instancias no se reparten la misma fila ni entregan a la vez eventos de la misma inscripción.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnrollmentOutboxDispatcher {
+
+    private final EnrollmentOutboxEventRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Inscripciones cuyos eventos tiene algún hilo de esta instancia entre manos
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.enrollments.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.enrollments.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.enrollments.outbox.handler-timeout-ms:30000}")
+    private long handlerTimeoutMs;
+
+    // Debe superar al timeout del listener: es lo que tarda otra instancia en retomar un lote abandonado
+    @Value("${app.enrollments.outbox.claim-ttl-ms:120000}")
+    private long claimTtlMs;
+
+    @Value("${app.enrollments.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Scheduled(fixedDelayString = "${app.enrollments.outbox.poll-interval-ms:1000}")
+    public void dispatchPending() {
+        List<EnrollmentOutboxEvent> pending = claimPending();
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<EnrollmentOutboxEvent>> byEnrollment = new LinkedHashMap<>();
+        for (EnrollmentOutboxEvent event : pending) {
+            byEnrollment.computeIfAbsent(event.getEnrollmentId(), id -> new ArrayList<>()).add(event);
+        }
+
+        List<GroupTask> submitted = new ArrayList<>(byEnrollment.size());
+        for (Map.Entry<Long, List<EnrollmentOutboxEvent>> entry : byEnrollment.entrySet()) {
+            GroupTask task = new GroupTask(entry.getKey(), entry.getValue());
+            inFlight.add(task.enrollmentId);
+            task.future = executor.submit(() -> runGroup(task));
+            submitted.add(task);
+        }
+
+        List<Long> dispatched = new ArrayList<>();
+        List<EnrollmentOutboxEvent> failed = new ArrayList<>();
+        List<Long> released = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(handlerTimeoutMs);
+        for (GroupTask group : submitted) {
+            try {
+                GroupResult result = group.future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                dispatched.addAll(result.dispatchedIds);
+                if (result.failedEvent != null) {
+                    result.failedEvent.setLastError(truncate(result.error));
+                    failed.add(result.failedEvent);
+                }
+                for (EnrollmentOutboxEvent event : group.events) {
+                    if (!result.dispatchedIds.contains(event.getId()) && event != result.failedEvent) {
+                        released.add(event.getId());
+                    }
+                }
+            } catch (TimeoutException e) {
+                // El listener puede seguir corriendo aunque se le interrumpa: el reclamo se mantiene hasta que
+                // vence y la inscripción sigue en vuelo hasta que el hilo termina, así no se entrega dos veces.
+                // El hilo abandonado no entrega los eventos que le quedaban
+                group.abandoned = true;
+                group.future.cancel(true);
+                if (group.started.compareAndSet(false, true)) {
+                    inFlight.remove(group.enrollmentId);   // cancelada antes de empezar
+                }
+            } catch (ExecutionException e) {
+                log.error("Error inesperado despachando eventos de inscripción: {}", e.getCause().getMessage());
+                group.events.forEach(event -> released.add(event.getId()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!dispatched.isEmpty()) {
+                outboxRepository.markProcessed(dispatched, Status.DISPATCHED, now);
+            }
+            for (EnrollmentOutboxEvent event : failed) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setClaimToken(null);
+                event.setClaimedUntil(null);
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setStatus(Status.FAILED);
+                    event.setProcessedAt(now);
+                    log.error("Evento de inscripción {} descartado tras {} intentos: {}",
+                            event.getId(), event.getAttempts(), event.getLastError());
+                }
+                outboxRepository.save(event);
+            }
+            if (!released.isEmpty()) {
+                outboxRepository.releaseClaims(released);
+            }
+        });
+        log.debug("Outbox de inscripciones: {} despachados, {} con error", dispatched.size(), failed.size());
+    }
+
+    /**
+     * Reclama un lote de pendientes para esta pasada. Se saltan las inscripciones que esta instancia aún
+     * está entregando (un listener que no respondió a la interrupción), aunque su reclamo haya vencido.
+     */
+    private List<EnrollmentOutboxEvent> claimPending() {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<EnrollmentOutboxEvent> claimed = transactionTemplate.execute(status -> {
+            List<Long> ids = outboxRepository.findClaimable(Status.PENDING, now, PageRequest.of(0, batchSize))
+                    .stream()
+                    .filter(event -> !inFlight.contains(event.getEnrollmentId()))
+                    .map(EnrollmentOutboxEvent::getId)
+                    .toList();
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            outboxRepository.claim(ids, Status.PENDING, token, now.plus(Duration.ofMillis(claimTtlMs)), now);
+            return outboxRepository.findByClaimTokenOrderById(token);
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    @Scheduled(cron = "${app.enrollments.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeDispatched() {
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository
+                .deleteProcessedBefore(Status.DISPATCHED, LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("Outbox de inscripciones: {} eventos despachados eliminados", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private GroupResult runGroup(GroupTask task) {
+        if (!task.started.compareAndSet(false, true)) {
+            return new GroupResult();   // la pasada ya la dio por cancelada
+        }
+        try {
+            return dispatchGroup(task);
+        } finally {
+            inFlight.remove(task.enrollmentId);
+        }
+    }
+
+    /**
+     * Entrega en orden los eventos de una inscripción. Si uno falla, los siguientes
+     * quedan pendientes para no alterar el orden; si la pasada la abandonó por timeout, no entrega más.
+     */
+    private GroupResult dispatchGroup(GroupTask task) {
+        GroupResult result = new GroupResult();
+        for (EnrollmentOutboxEvent event : task.events) {
+            if (task.abandoned) {
+                break;
+            }
+            try {
+                eventPublisher.publishEvent(EnrollmentLifecycleEvent.from(event));
+                result.dispatchedIds.add(event.getId());
+            } catch (RuntimeException e) {
+                result.failedEvent = event;
+                result.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private static class GroupTask {
+        private final Long enrollmentId;
+        private final List<EnrollmentOutboxEvent> events;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile boolean abandoned;
+        private Future<GroupResult> future;
+
+        GroupTask(Long enrollmentId, List<EnrollmentOutboxEvent> events) {
+            this.enrollmentId = enrollmentId;
+            this.events = events;
+        }
+    }
+
+    private static class GroupResult {
+        private final List<Long> dispatchedIds = new ArrayList<>();
+        private EnrollmentOutboxEvent failedEvent;
+        private String error;
+    }
+}
@@ -0,0 +1,73 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent.EventType;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentOutboxEventRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Escribe eventos de inscripción en la tabla outbox dentro de la transacción que modifica la inscripción,
+ * de modo que el evento existe si y solo si el cambio se confirmó.
+ */
+@Service
+@RequiredArgsConstructor
+public class EnrollmentOutboxService {
+
+    private static final int[] PROGRESS_MILESTONES = {25, 50, 75};
+
+    private final EnrollmentOutboxEventRepository outboxRepository;
+
+    /**
+     * Registra el evento correspondiente a un cambio de progreso: COMPLETED si la inscripción
+     * acaba de completarse, o PROGRESS_MILESTONE con el hito más alto cruzado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordProgressChange(Enrollment enrollment, int previousProgress, EnrollmentStatus previousStatus) {
+        if (previousStatus != EnrollmentStatus.COMPLETED && enrollment.isCompleted()) {
+            record(enrollment, EventType.COMPLETED, 100, previousStatus);
+            return;
+        }
+        int milestone = highestMilestoneCrossed(previousProgress, enrollment.getProgressPercentage());
+        if (milestone > 0) {
+            record(enrollment, EventType.PROGRESS_MILESTONE, milestone, previousStatus);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompleted(Enrollment enrollment, EnrollmentStatus previousStatus) {
+        record(enrollment, EventType.COMPLETED, 100, previousStatus);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDropped(Enrollment enrollment, EnrollmentStatus previousStatus) {
+        record(enrollment, EventType.DROPPED, enrollment.getProgressPercentage(), previousStatus);
+    }
+
+    private void record(Enrollment enrollment, EventType type, Integer progress, EnrollmentStatus previousStatus) {
+        EnrollmentOutboxEvent event = new EnrollmentOutboxEvent();
+        event.setEventType(type);
+        event.setEnrollmentId(enrollment.getId());
+        event.setStudentId(enrollment.getStudent().getId());
+        event.setCourseId(enrollment.getCourse().getId());
+        event.setProgressPercentage(progress);
+        event.setPreviousStatus(previousStatus);
+        outboxRepository.save(event);
+    }
+
+    private static int highestMilestoneCrossed(int previous, int current) {
+        int crossed = 0;
+        for (int milestone : PROGRESS_MILESTONES) {
+            if (previous < milestone && current >= milestone) {
+                crossed = milestone;
+            }
+        }
+        return crossed;
+    }
+}
@@ -1,12 +1,16 @@
 package com.Dev_learning_Platform.Dev_learning_Platform.services;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseActivityEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
@@ -27,6 +31,12 @@ public class EnrollmentService {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private EnrollmentOutboxService outboxService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
 
     public Enrollment enrollStudent(Long studentId, Long courseId) {
 
@@ -48,17 +58,25 @@ public class EnrollmentService {
             throw new IllegalArgumentException("El curso no está disponible para inscripciones");
         }
 
-        if (enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
+        if (!enrollIfAbsent(studentId, courseId, null)) {
             throw new IllegalArgumentException("El estudiante ya está inscrito en este curso");
         }
 
-        Enrollment enrollment = new Enrollment();
-        enrollment.setStudent(student);
-        enrollment.setCourse(course);
-        enrollment.setStatus(EnrollmentStatus.ACTIVE);
-        enrollment.setProgressPercentage(0);
+        return enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
+                .orElseThrow(() -> new IllegalStateException("No se pudo recuperar la inscripción creada"));
+    }
 
-        return enrollmentRepository.save(enrollment);
+    /**
+     * Inscripción idempotente: un único INSERT que no hace nada si la inscripción ya existe.
+     *
+     * @return true si se creó una nueva inscripción, false si ya existía
+     */
+    public boolean enrollIfAbsent(Long studentId, Long courseId, Long paymentId) {
+        boolean created = enrollmentRepository.insertIfAbsent(studentId, courseId, paymentId, LocalDateTime.now()) == 1;
+        if (created) {
+            eventPublisher.publishEvent(new EnrollmentsCreatedEvent(courseId, 1));
+        }
+        return created;
     }
 
     @Transactional(readOnly = true)
@@ -105,32 +123,50 @@ public class EnrollmentService {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Inscripción no encontrada con ID: " + enrollmentId));
 
+        int previousProgress = enrollment.getProgressPercentage();
+        EnrollmentStatus previousStatus = enrollment.getStatus();
         enrollment.updateProgress(progressPercentage);
-        return enrollmentRepository.save(enrollment);
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        outboxService.recordProgressChange(saved, previousProgress, previousStatus);
+        eventPublisher.publishEvent(new CourseActivityEvent(saved.getStudent().getId(), saved.getCourse().getId()));
+        return saved;
     }
 
     public Enrollment markAsCompleted(Long enrollmentId) {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Inscripción no encontrada con ID: " + enrollmentId));
 
+        EnrollmentStatus previousStatus = enrollment.getStatus();
         enrollment.markAsCompleted();
-        return enrollmentRepository.save(enrollment);
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        if (previousStatus != EnrollmentStatus.COMPLETED) {
+            outboxService.recordCompleted(saved, previousStatus);
+        }
+        return saved;
     }
 
     public void unenrollStudent(Long enrollmentId) {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Inscripción no encontrada con ID: " + enrollmentId));
 
-        enrollment.setStatus(EnrollmentStatus.DROPPED);
-        enrollmentRepository.save(enrollment);
+        drop(enrollment);
     }
 
     public void unenrollStudentFromCourse(Long studentId, Long courseId) {
         Enrollment enrollment = enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
                 .orElseThrow(() -> new IllegalArgumentException("El estudiante no está inscrito en este curso"));
 
+        drop(enrollment);
+    }
+
+    private void drop(Enrollment enrollment) {
+        EnrollmentStatus previousStatus = enrollment.getStatus();
+        if (previousStatus == EnrollmentStatus.DROPPED) {
+            return;
+        }
         enrollment.setStatus(EnrollmentStatus.DROPPED);
         enrollmentRepository.save(enrollment);
+        outboxService.recordDropped(enrollment, previousStatus);
     }
 
     @Transactional(readOnly = true)
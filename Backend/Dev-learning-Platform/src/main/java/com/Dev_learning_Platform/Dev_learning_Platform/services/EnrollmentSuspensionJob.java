@@ -0,0 +1,175 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.EnrollmentSuspensionProgressDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseEnrollmentsSuspendedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tarea asíncrona que suspende las inscripciones de un curso por bloques de IDs.
+ * Cada bloque se actualiza en su propia transacción para no mantener bloqueos
+ * sobre todas las filas del curso a la vez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnrollmentSuspensionJob {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Progress> jobs = new ConcurrentHashMap<>();
+
+    @Value("${app.enrollments.suspension.chunk-size:1000}")
+    private int chunkSize;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Registra una suspensión pendiente para el curso.
+     *
+     * @return {@code false} si ya había una suspensión en curso para el mismo curso
+     */
+    public boolean register(Long courseId, long totalEnrollments) {
+        Progress fresh = new Progress(courseId, totalEnrollments);
+        Progress current = jobs.compute(courseId, (id, existing) ->
+                existing != null && existing.status == EnrollmentSuspensionProgressDto.Status.RUNNING
+                        ? existing : fresh);
+        return current == fresh;
+    }
+
+    /**
+     * Registra como terminada una suspensión que se resolvió con un único UPDATE, una vez confirmada su
+     * transacción. Una suspensión asíncrona en curso para el mismo curso se conserva, igual que en
+     * {@link #register}.
+     */
+    public void recordCompleted(Long courseId, long suspendedEnrollments) {
+        Progress completed = completed(courseId, suspendedEnrollments);
+        jobs.compute(courseId, (id, existing) ->
+                existing != null && existing.status == EnrollmentSuspensionProgressDto.Status.RUNNING
+                        ? existing : completed);
+    }
+
+    /**
+     * Progreso de una suspensión resuelta con un único UPDATE, sin registrarlo.
+     */
+    public EnrollmentSuspensionProgressDto completedProgress(Long courseId, long suspendedEnrollments) {
+        return completed(courseId, suspendedEnrollments).toDto();
+    }
+
+    private static Progress completed(Long courseId, long suspendedEnrollments) {
+        Progress progress = new Progress(courseId, suspendedEnrollments);
+        progress.processed.set(suspendedEnrollments);
+        progress.finish(EnrollmentSuspensionProgressDto.Status.COMPLETED, null);
+        return progress;
+    }
+
+    /**
+     * Descarta una suspensión registrada cuya transacción de origen no llegó a confirmarse.
+     */
+    public void discard(Long courseId) {
+        jobs.computeIfPresent(courseId, (id, existing) ->
+                existing.status == EnrollmentSuspensionProgressDto.Status.RUNNING && existing.processed.get() == 0
+                        ? null : existing);
+    }
+
+    public Optional<EnrollmentSuspensionProgressDto> getProgress(Long courseId) {
+        return Optional.ofNullable(jobs.get(courseId)).map(Progress::toDto);
+    }
+
+    @Async
+    public void run(Long courseId) {
+        Progress progress = jobs.get(courseId);
+        if (progress == null) {
+            return;
+        }
+        log.info("Suspendiendo {} inscripciones del curso {} en bloques de {}",
+                progress.total, courseId, chunkSize);
+        try {
+            long afterId = 0L;
+            while (true) {
+                long lastId = afterId;
+                Long nextAfterId = transactionTemplate.execute(status -> {
+                    List<Long> ids = enrollmentRepository.findIdsByCourseIdAndStatusNot(
+                            courseId, EnrollmentStatus.SUSPENDED, lastId, PageRequest.of(0, chunkSize));
+                    if (ids.isEmpty()) {
+                        return null;
+                    }
+                    int updated = enrollmentRepository.updateStatusByIdIn(
+                            ids, EnrollmentStatus.SUSPENDED, LocalDateTime.now());
+                    progress.processed.addAndGet(updated);
+                    return ids.get(ids.size() - 1);
+                });
+                if (nextAfterId == null) {
+                    break;
+                }
+                afterId = nextAfterId;
+            }
+            progress.finish(EnrollmentSuspensionProgressDto.Status.COMPLETED, null);
+            eventPublisher.publishEvent(new CourseEnrollmentsSuspendedEvent(courseId, progress.processed.get()));
+            log.info("Suspensión del curso {} completada: {} inscripciones", courseId, progress.processed.get());
+        } catch (RuntimeException e) {
+            progress.finish(EnrollmentSuspensionProgressDto.Status.FAILED, e.getMessage());
+            log.error("Error suspendiendo inscripciones del curso {}: {}", courseId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Estado mutable de un trabajo, compartido entre el hilo que lo ejecuta y las consultas de progreso.
+     */
+    private static class Progress {
+        private final Long courseId;
+        private final long total;
+        private final AtomicLong processed = new AtomicLong();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile EnrollmentSuspensionProgressDto.Status status = EnrollmentSuspensionProgressDto.Status.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String errorMessage;
+
+        Progress(Long courseId, long total) {
+            this.courseId = courseId;
+            this.total = total;
+        }
+
+        void finish(EnrollmentSuspensionProgressDto.Status finalStatus, String error) {
+            this.errorMessage = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = finalStatus;
+        }
+
+        EnrollmentSuspensionProgressDto toDto() {
+            long done = processed.get();
+            double percentage = total == 0 ? 100.0 : Math.min(100.0, done * 100.0 / total);
+            return EnrollmentSuspensionProgressDto.builder()
+                    .courseId(courseId)
+                    .status(status)
+                    .totalEnrollments(total)
+                    .processedEnrollments(done)
+                    .percentage(percentage)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .errorMessage(errorMessage)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.EnrollmentSuspensionProgressDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseEnrollmentsSuspendedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio para suspender todas las inscripciones de un curso desactivado.
+ * Los cursos pequeños se resuelven con un único UPDATE dentro de la transacción actual;
+ * los grandes se delegan a {@link EnrollmentSuspensionJob} una vez confirmada la transacción.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EnrollmentSuspensionService {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentSuspensionJob suspensionJob;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public EnrollmentSuspensionProgressDto suspendCourseEnrollments(Long courseId) {
+        long pending = enrollmentRepository.countByCourseIdAndStatusNot(courseId, EnrollmentStatus.SUSPENDED);
+
+        if (pending <= suspensionJob.getChunkSize()) {
+            int suspended = pending == 0 ? 0
+                    : enrollmentRepository.updateStatusByCourseId(courseId, EnrollmentStatus.SUSPENDED, LocalDateTime.now());
+            // El progreso se registra al confirmar: antes otra consulta lo vería completado sin estarlo
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        suspensionJob.recordCompleted(courseId, suspended);
+                    }
+                });
+            } else {
+                suspensionJob.recordCompleted(courseId, suspended);
+            }
+            eventPublisher.publishEvent(new CourseEnrollmentsSuspendedEvent(courseId, suspended));
+            return suspensionJob.completedProgress(courseId, suspended);
+        }
+
+        if (suspensionJob.register(courseId, pending)) {
+            log.info("Curso {} con {} inscripciones: suspensión delegada a tarea asíncrona", courseId, pending);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            suspensionJob.run(courseId);
+                        } else {
+                            suspensionJob.discard(courseId);
+                        }
+                    }
+                });
+            } else {
+                suspensionJob.run(courseId);
+            }
+        }
+        return suspensionJob.getProgress(courseId).orElseThrow();
+    }
+
+    public Optional<EnrollmentSuspensionProgressDto> getSuspensionProgress(Long courseId) {
+        return suspensionJob.getProgress(courseId);
+    }
+}
@@ -0,0 +1,242 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.instructor.CourseAnalyticsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.instructor.InstructorAnalyticsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseEnrollmentsSuspendedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseStateChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentLifecycleEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Payment;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.PaymentRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Analíticas por curso para el panel del instructor.
+ * Cada familia de métricas (inscripciones, ingresos, tendencia diaria) sale de una consulta agrupada
+ * por curso sobre todos los cursos del instructor. El resultado se cachea por instructor y se descarta
+ * cuando llega un evento de alguno de sus cursos; el TTL cubre los cambios que no publican evento
+ * (p. ej. avances de progreso entre hitos). Los DTO cacheados son mutables, así que se entrega una copia.
+ */
+@Service
+@RequiredArgsConstructor
+public class InstructorAnalyticsService {
+
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final PaymentRepository paymentRepository;
+
+    private final Map<Long, InstructorAnalyticsDto> cache = new ConcurrentHashMap<>();
+    // Curso -> instructor, para saber qué entrada invalidar con los eventos (que solo traen courseId)
+    private final Map<Long, Long> courseOwners = new ConcurrentHashMap<>();
+    // Sube con cada invalidación: un cálculo que se cruza con una invalidación se devuelve pero no se guarda
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${app.instructors.analytics.cache-ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    @Value("${app.instructors.analytics.trend-days:30}")
+    private int trendDays;
+
+    /**
+     * Analíticas del instructor. Solo el propio instructor o un administrador pueden consultarlas.
+     * Se recalculan en el primario: el recálculo suele seguir a un evento que descartó la entrada, y
+     * leerlo de la réplica retrasada dejaría en caché datos anteriores al cambio durante todo el TTL.
+     */
+    @Transactional
+    public InstructorAnalyticsDto getAnalytics(Long instructorId, User requester) {
+        if (requester.getRole() != User.Role.ADMIN && !requester.getId().equals(instructorId)) {
+            throw new SecurityException("No tienes permisos para ver las analíticas de este instructor");
+        }
+        InstructorAnalyticsDto cached = cache.get(instructorId);
+        if (cached != null && Duration.between(cached.getGeneratedAt(), LocalDateTime.now()).toMillis() < cacheTtlMs) {
+            return copy(cached);
+        }
+        long current = generation.get();
+        InstructorAnalyticsDto analytics = compute(instructorId);
+        if (generation.get() == current) {
+            cache.put(instructorId, analytics);
+        }
+        return copy(analytics);
+    }
+
+    private static InstructorAnalyticsDto copy(InstructorAnalyticsDto analytics) {
+        return analytics.toBuilder()
+                .courses(analytics.getCourses().stream().map(course -> course.toBuilder().build()).toList())
+                .build();
+    }
+
+    private InstructorAnalyticsDto compute(Long instructorId) {
+        LocalDate today = LocalDate.now();
+        LocalDate trendStart = today.minusDays(trendDays - 1L);
+
+        Map<Long, CourseAnalyticsDto> courses = new HashMap<>();
+        List<CourseAnalyticsDto> ordered = new ArrayList<>();
+        for (Object[] row : courseRepository.findSummariesByInstructorId(instructorId)) {
+            Long courseId = (Long) row[0];
+            CourseAnalyticsDto course = CourseAnalyticsDto.builder()
+                    .courseId(courseId)
+                    .title((String) row[1])
+                    .isPublished((Boolean) row[2])
+                    .totalEnrollments(0L).activeStudents(0L).completedEnrollments(0L)
+                    .completionRate(0.0).averageProgress(0.0)
+                    .revenue(BigDecimal.ZERO).transactions(0L)
+                    .build();
+            courses.put(courseId, course);
+            ordered.add(course);
+            courseOwners.put(courseId, instructorId);
+        }
+
+        for (Object[] row : enrollmentRepository.aggregateByCourseForInstructor(instructorId)) {
+            CourseAnalyticsDto course = courses.get((Long) row[0]);
+            if (course == null) {
+                continue; // Curso inactivo
+            }
+            long total = toLong(row[1]);
+            long completed = toLong(row[3]);
+            course.setTotalEnrollments(total);
+            course.setActiveStudents(toLong(row[2]));
+            course.setCompletedEnrollments(completed);
+            course.setCompletionRate(percentage(completed, total));
+            course.setAverageProgress(row[4] == null ? 0.0 : round(((Number) row[4]).doubleValue()));
+        }
+
+        for (Object[] row : paymentRepository.sumByCourseForInstructor(instructorId, Payment.Status.COMPLETED)) {
+            CourseAnalyticsDto course = courses.get((Long) row[0]);
+            if (course != null) {
+                course.setRevenue(row[1] == null ? BigDecimal.ZERO : (BigDecimal) row[1]);
+                course.setTransactions(toLong(row[2]));
+            }
+        }
+
+        Map<Long, long[]> trends = new HashMap<>();
+        long[] totalTrend = new long[trendDays];
+        for (Object[] row : enrollmentRepository.countEnrolledByCourseAndDayForInstructor(
+                instructorId, trendStart.atStartOfDay())) {
+            if (!courses.containsKey((Long) row[0])) {
+                continue;
+            }
+            int day = (int) ChronoUnit.DAYS.between(trendStart, (LocalDate) row[1]);
+            if (day >= 0 && day < trendDays) {
+                long count = toLong(row[2]);
+                trends.computeIfAbsent((Long) row[0], id -> new long[trendDays])[day] += count;
+                totalTrend[day] += count;
+            }
+        }
+
+        long totalEnrollments = 0;
+        long activeStudents = 0;
+        long completed = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (CourseAnalyticsDto course : ordered) {
+            course.setEnrollmentTrend(asList(trends.getOrDefault(course.getCourseId(), new long[trendDays])));
+            totalEnrollments += course.getTotalEnrollments();
+            activeStudents += course.getActiveStudents();
+            completed += course.getCompletedEnrollments();
+            revenue = revenue.add(course.getRevenue());
+        }
+
+        return InstructorAnalyticsDto.builder()
+                .instructorId(instructorId)
+                .totalCourses((long) ordered.size())
+                .totalEnrollments(totalEnrollments)
+                .activeStudents(activeStudents)
+                .completionRate(percentage(completed, totalEnrollments))
+                .totalRevenue(revenue)
+                .trendStartDate(trendStart)
+                .enrollmentTrend(asList(totalTrend))
+                .courses(ordered)
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    // ----- Invalidación -----
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentsCreated(EnrollmentsCreatedEvent event) {
+        evictCourse(event.getCourseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseEnrollmentsSuspended(CourseEnrollmentsSuspendedEvent event) {
+        evictCourse(event.getCourseId());
+    }
+
+    @EventListener
+    public void onEnrollmentLifecycle(EnrollmentLifecycleEvent event) {
+        evictCourse(event.getCourseId());
+    }
+
+    /**
+     * Se invalidan el instructor anterior y el nuevo, que difieren si el curso se reasignó, y el índice
+     * curso -> instructor pasa al nuevo. Si no se conoce ninguno se vacía la caché completa.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseStateChanged(CourseStateChangedEvent event) {
+        boolean indexed = evictCourse(event.getCourseId());
+        Long previousOwner = event.getBefore() != null ? event.getBefore().instructorId() : null;
+        Long owner = event.getAfter() != null ? event.getAfter().instructorId() : null;
+        if (previousOwner != null) {
+            cache.remove(previousOwner);
+        }
+        if (owner != null) {
+            cache.remove(owner);
+            courseOwners.put(event.getCourseId(), owner);
+        }
+        if (!indexed && previousOwner == null && owner == null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * La generación sube aunque el curso aún no esté en el índice: puede pertenecer a un cálculo en curso.
+     */
+    private boolean evictCourse(Long courseId) {
+        generation.incrementAndGet();
+        Long instructorId = courseOwners.get(courseId);
+        if (instructorId == null) {
+            return false;
+        }
+        cache.remove(instructorId);
+        return true;
+    }
+
+    private static List<Long> asList(long[] values) {
+        return Arrays.stream(values).boxed().toList();
+    }
+
+    private static Double percentage(long part, long total) {
+        return total == 0 ? 0.0 : round(part * 100.0 / total);
+    }
+
+    private static double round(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
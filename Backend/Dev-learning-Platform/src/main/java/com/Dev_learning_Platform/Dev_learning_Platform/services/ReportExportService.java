@@ -0,0 +1,191 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports.EnrollmentExportRow;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports.PaymentExportRow;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.exports.UserExportRow;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.PaymentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exportaciones de administración (usuarios, inscripciones, pagos) en CSV o NDJSON.
+ * Las filas se leen con un {@link Stream} de proyecciones (sin entidades gestionadas) dentro de una
+ * transacción de solo lectura y se escriben directamente en la respuesta, así que la memoria usada
+ * no depende del número de filas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportExportService {
+
+    /** Cada cuántas filas se hace flush de la salida hacia el cliente. */
+    private static final int FLUSH_EVERY = 500;
+
+    private final UserRepository userRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV,
+        NDJSON;
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato de exportación no soportado: " + value);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportUsers(Format format, OutputStream output) throws IOException {
+        return export("usuarios", userRepository::streamAllForExport, format, output,
+                new String[] {"id", "userName", "lastName", "email", "role", "active", "createdAt"},
+                row -> new Object[] {row.getId(), row.getUserName(), row.getLastName(), row.getEmail(),
+                        row.getRole(), row.isActive(), row.getCreatedAt()});
+    }
+
+    @Transactional(readOnly = true)
+    public long exportEnrollments(LocalDateTime from, LocalDateTime to, Format format, OutputStream output)
+            throws IOException {
+        return export("inscripciones", () -> enrollmentRepository.streamForExport(from, to), format, output,
+                new String[] {"id", "studentId", "studentEmail", "courseId", "courseTitle", "status",
+                        "progressPercentage", "enrolledAt", "completedAt"},
+                (EnrollmentExportRow row) -> new Object[] {row.getId(), row.getStudentId(), row.getStudentEmail(),
+                        row.getCourseId(), row.getCourseTitle(), row.getStatus(), row.getProgressPercentage(),
+                        row.getEnrolledAt(), row.getCompletedAt()});
+    }
+
+    @Transactional(readOnly = true)
+    public long exportPayments(LocalDateTime from, LocalDateTime to, Format format, OutputStream output)
+            throws IOException {
+        return export("pagos", () -> paymentRepository.streamForExport(from, to), format, output,
+                new String[] {"id", "userId", "userEmail", "courseId", "courseTitle", "amount", "status",
+                        "stripePaymentId", "createdAt"},
+                (PaymentExportRow row) -> new Object[] {row.getId(), row.getUserId(), row.getUserEmail(),
+                        row.getCourseId(), row.getCourseTitle(), row.getAmount(), row.getStatus(),
+                        row.getStripePaymentId(), row.getCreatedAt()});
+    }
+
+    private <T> long export(String name, Supplier<Stream<T>> source, Format format, OutputStream output,
+            String[] header, Function<T, Object[]> csvColumns) throws IOException {
+        RowWriter<T> writer = format == Format.CSV
+                ? new CsvRowWriter<>(output, header, csvColumns)
+                : new NdjsonRowWriter<>(objectMapper.writer().withRootValueSeparator("\n").writeValues(output));
+        long rows = 0;
+        try (Stream<T> stream = source.get()) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            // Normalmente el cliente cerró la conexión a mitad de la descarga
+            log.warn("Exportación de {} interrumpida tras {} filas: {}", name, rows, e.getMessage());
+            throw e;
+        }
+        writer.flush();
+        log.info("Exportación de {} completada: {} filas en {}", name, rows, format);
+        return rows;
+    }
+
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter<T> implements RowWriter<T> {
+
+        private final SequenceWriter writer;
+
+        NdjsonRowWriter(SequenceWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            writer.write(row);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class CsvRowWriter<T> implements RowWriter<T> {
+
+        private final Writer out;
+        private final Function<T, Object[]> columns;
+
+        CsvRowWriter(OutputStream output, String[] header, Function<T, Object[]> columns) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            this.columns = columns;
+            writeLine(header);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            writeLine(columns.apply(row));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(escape(values[i]));
+            }
+            out.write("\r\n");
+        }
+
+        /**
+         * Escapa según RFC 4180 y neutraliza valores que una hoja de cálculo interpretaría como fórmula.
+         */
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                    || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.StatsSeriesPointDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Payment;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.StatsRollup;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.StatsRollup.Granularity;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.PaymentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.StatsRollupRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene la tabla de rollups de métricas (altas, inscripciones, finalizaciones e ingresos por categoría).
+ * Los buckets diarios se recalculan periódicamente a partir de las tablas origen con consultas agrupadas;
+ * los semanales y mensuales se construyen sumando los diarios. Las consultas del panel leen estos
+ * buckets en lugar de recorrer {@code enrollments} y {@code payments}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatsRollupService {
+
+    /** Mínimo de días diarios que se conservan para poder reconstruir el mes actual y el anterior. */
+    private static final int MIN_DAILY_RETENTION_DAYS = 62;
+
+    private final StatsRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.stats.rollup.backfill-days:365}")
+    private int backfillDays;
+
+    @Value("${app.stats.rollup.daily-retention-days:120}")
+    private int dailyRetentionDays;
+
+    @Value("${app.stats.revenue.cache-ttl-ms:300000}")
+    private long revenueCacheTtlMs;
+
+    private volatile RevenueTotals allTimeRevenue;
+
+    private record RevenueTotals(BigDecimal revenue, long transactions, long expiresAt) {
+    }
+
+    // ----- Lectura -----
+
+    /**
+     * Serie temporal en [from, to] con la granularidad indicada; {@code categoryId} null suma todas las categorías.
+     */
+    @Transactional(readOnly = true)
+    public List<StatsSeriesPointDto> getSeries(Granularity granularity, LocalDate from, LocalDate to, Long categoryId) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la final");
+        }
+        LocalDate start = bucketStart(granularity, from);
+        List<StatsSeriesPointDto> points = new ArrayList<>();
+        for (Object[] row : rollupRepository.series(granularity, start, to.plusDays(1), categoryId)) {
+            points.add(StatsSeriesPointDto.builder()
+                    .bucketStart((LocalDate) row[0])
+                    .newUsers(toLong(row[1]))
+                    .newEnrollments(toLong(row[2]))
+                    .completions(toLong(row[3]))
+                    .revenue(toDecimal(row[4]))
+                    .transactions(toLong(row[5]))
+                    .build());
+        }
+        return points;
+    }
+
+    /**
+     * Totales de todas las categorías para los meses en [fromMonth, toMonth).
+     */
+    @Transactional(readOnly = true)
+    public StatsSeriesPointDto getMonthlyTotals(LocalDate fromMonth, LocalDate toMonth) {
+        StatsSeriesPointDto total = StatsSeriesPointDto.builder()
+                .bucketStart(fromMonth).newUsers(0L).newEnrollments(0L).completions(0L)
+                .revenue(BigDecimal.ZERO).transactions(0L).build();
+        for (Object[] row : rollupRepository.sumByCategory(Granularity.MONTH, fromMonth, toMonth)) {
+            total.setNewUsers(total.getNewUsers() + toLong(row[1]));
+            total.setNewEnrollments(total.getNewEnrollments() + toLong(row[2]));
+            total.setCompletions(total.getCompletions() + toLong(row[3]));
+            total.setRevenue(total.getRevenue().add(toDecimal(row[4])));
+            total.setTransactions(total.getTransactions() + toLong(row[5]));
+        }
+        return total;
+    }
+
+    /**
+     * Ingresos y transacciones de todos los pagos completados. Se calculan sobre {@code payments} y no
+     * sumando rollups, que solo existen desde el primer backfill; el resultado se cachea
+     * {@code revenue.cache-ttl-ms}.
+     */
+    @Transactional(readOnly = true)
+    public StatsSeriesPointDto getAllTimeRevenue() {
+        RevenueTotals totals = allTimeRevenue;
+        if (totals == null || System.currentTimeMillis() >= totals.expiresAt()) {
+            BigDecimal revenue = BigDecimal.ZERO;
+            long transactions = 0;
+            for (Object[] row : paymentRepository.sumByStatus(Payment.Status.COMPLETED)) {
+                revenue = toDecimal(row[0]);
+                transactions = toLong(row[1]);
+            }
+            totals = new RevenueTotals(revenue, transactions, System.currentTimeMillis() + revenueCacheTtlMs);
+            allTimeRevenue = totals;
+        }
+        return StatsSeriesPointDto.builder()
+                .revenue(totals.revenue())
+                .transactions(totals.transactions())
+                .build();
+    }
+
+    // ----- Mantenimiento -----
+
+    /**
+     * Al arrancar sin rollups, los reconstruye desde el mes del primer pago (o desde {@code backfill-days}
+     * atrás si es anterior), siempre desde el día 1 para que el primer mes no quede a medias.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!rollupRepository.existsByGranularity(Granularity.DAY)) {
+            LocalDate today = LocalDate.now();
+            LocalDate from = today.minusDays(backfillDays);
+            LocalDateTime firstPayment = paymentRepository.findEarliestCreatedAt();
+            if (firstPayment != null && firstPayment.toLocalDate().isBefore(from)) {
+                from = firstPayment.toLocalDate();
+            }
+            from = bucketStart(Granularity.MONTH, from);
+            refreshRange(from, today.plusDays(1));
+            log.info("Rollups de estadísticas inicializados desde {}", from);
+        }
+    }
+
+    /**
+     * Recalcula ayer y hoy (ayer cubre los registros que llegan cerca de medianoche).
+     */
+    @Scheduled(fixedDelayString = "${app.stats.rollup.refresh-interval-ms:300000}",
+            initialDelayString = "${app.stats.rollup.refresh-interval-ms:300000}")
+    public void refreshRecent() {
+        LocalDate today = LocalDate.now();
+        refreshRange(today.minusDays(1), today.plusDays(1));
+    }
+
+    /**
+     * Compactación nocturna: reconstruye la semana y el mes anteriores y elimina
+     * los buckets diarios que ya quedaron fuera de la retención.
+     */
+    @Scheduled(cron = "${app.stats.rollup.compaction-cron:0 15 2 * * *}")
+    public void compact() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate cutoff = LocalDate.now().minusDays(Math.max(dailyRetentionDays, MIN_DAILY_RETENTION_DAYS));
+        Integer pruned = transactionTemplate.execute(status -> {
+            rebuildPeriods(Granularity.WEEK, yesterday.minusWeeks(1), yesterday);
+            rebuildPeriods(Granularity.MONTH, yesterday.minusMonths(1), yesterday);
+            return rollupRepository.deleteRange(Granularity.DAY, LocalDate.of(1970, 1, 1), cutoff);
+        });
+        log.info("Compactación de rollups completada ({} buckets diarios eliminados)", pruned);
+    }
+
+    /**
+     * Recalcula los buckets diarios de [from, to) desde las tablas origen y luego
+     * las semanas y meses que los contienen.
+     */
+    public void refreshRange(LocalDate from, LocalDate to) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rollupRepository.deleteRange(Granularity.DAY, from, to);
+                rollupRepository.saveAll(aggregateDays(from, to).values());
+                rebuildPeriods(Granularity.WEEK, from, to.minusDays(1));
+                rebuildPeriods(Granularity.MONTH, from, to.minusDays(1));
+            });
+        } catch (RuntimeException e) {
+            log.error("❌ Error recalculando rollups de estadísticas: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<String, StatsRollup> aggregateDays(LocalDate from, LocalDate to) {
+        Map<String, StatsRollup> buckets = new LinkedHashMap<>();
+        Timestamp fromTs = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp toTs = Timestamp.valueOf(to.atStartOfDay());
+
+        for (Object[] row : userRepository.countCreatedByDay(fromTs, toTs)) {
+            bucket(buckets, Granularity.DAY, (LocalDate) row[0], StatsRollup.PLATFORM_CATEGORY_ID)
+                    .setNewUsers(toLong(row[1]));
+        }
+        for (Object[] row : enrollmentRepository.countEnrolledByDayAndCategory(from.atStartOfDay(), to.atStartOfDay())) {
+            bucket(buckets, Granularity.DAY, (LocalDate) row[0], (Long) row[1]).setNewEnrollments(toLong(row[2]));
+        }
+        for (Object[] row : enrollmentRepository.countCompletedByDayAndCategory(from.atStartOfDay(), to.atStartOfDay())) {
+            bucket(buckets, Granularity.DAY, (LocalDate) row[0], (Long) row[1]).setCompletions(toLong(row[2]));
+        }
+        for (Object[] row : paymentRepository.sumByDayAndCategory(
+                Payment.Status.COMPLETED, from.atStartOfDay(), to.atStartOfDay())) {
+            StatsRollup rollup = bucket(buckets, Granularity.DAY, (LocalDate) row[0], (Long) row[1]);
+            rollup.setRevenue(toDecimal(row[2]));
+            rollup.setTransactions(toLong(row[3]));
+        }
+        return buckets;
+    }
+
+    /**
+     * Reconstruye desde los buckets diarios todos los periodos que tocan el rango [firstDay, lastDay].
+     */
+    private void rebuildPeriods(Granularity granularity, LocalDate firstDay, LocalDate lastDay) {
+        LocalDate periodStart = bucketStart(granularity, firstDay);
+        LocalDate end = nextBucket(granularity, bucketStart(granularity, lastDay));
+        rollupRepository.deleteRange(granularity, periodStart, end);
+
+        List<StatsRollup> periods = new ArrayList<>();
+        for (LocalDate start = periodStart; start.isBefore(end); start = nextBucket(granularity, start)) {
+            for (Object[] row : rollupRepository.sumByCategory(Granularity.DAY, start, nextBucket(granularity, start))) {
+                StatsRollup rollup = new StatsRollup();
+                rollup.setGranularity(granularity);
+                rollup.setBucketStart(start);
+                rollup.setCategoryId((Long) row[0]);
+                rollup.setNewUsers(toLong(row[1]));
+                rollup.setNewEnrollments(toLong(row[2]));
+                rollup.setCompletions(toLong(row[3]));
+                rollup.setRevenue(toDecimal(row[4]));
+                rollup.setTransactions(toLong(row[5]));
+                periods.add(rollup);
+            }
+        }
+        rollupRepository.saveAll(periods);
+    }
+
+    private static StatsRollup bucket(Map<String, StatsRollup> buckets, Granularity granularity, LocalDate day,
+            Long categoryId) {
+        return buckets.computeIfAbsent(day + "/" + categoryId, key -> {
+            StatsRollup rollup = new StatsRollup();
+            rollup.setGranularity(granularity);
+            rollup.setBucketStart(day);
+            rollup.setCategoryId(categoryId);
+            return rollup;
+        });
+    }
+
+    public static LocalDate bucketStart(Granularity granularity, LocalDate day) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextBucket(Granularity granularity, LocalDate start) {
+        return switch (granularity) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -2,6 +2,7 @@ package com.Dev_learning_Platform.Dev_learning_Platform.services;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.profile.UpdateProfileDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.UserRegisteredEvent;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
 import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
 
@@ -22,12 +24,18 @@ import lombok.extern.slf4j.Slf4j;
 public class UserService {
     
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @Transactional
     public User saveUser(User user) {
+        boolean isNew = user.getId() == null;
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (isNew) {
+            eventPublisher.publishEvent(new UserRegisteredEvent(saved.getId(), saved.getRole(), saved.isActive()));
+        }
+        return saved;
     }
 
     public User findByEmail(String email) {
@@ -0,0 +1,283 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services.activity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.ActivityStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.UniqueViewersDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseActivityEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.ActivitySketch;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.ActivitySketch.Scope;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.ActivitySketchRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CategoryRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Alumnos distintos por día (plataforma y curso) con sketches HyperLogLog.
+ *
+ * <p>La actividad se acumula en memoria y se vuelca periódicamente a {@code activity_sketches},
+ * combinándola con lo ya guardado bajo un bloqueo de la fila. Como la unión de sketches es idempotente, volcar dos veces el mismo
+ * sketch o desde varias instancias no cuenta a nadie dos veces. Las consultas unen lo persistido con lo
+ * pendiente de volcar, así que ven la actividad de esta instancia al momento.
+ *
+ * <p>Los sketches de plataforma identifican al alumno por su email (lo único que tiene el filtro JWT sin
+ * ir a base de datos) y los de curso por su id; nunca se combinan entre sí. Las categorías se calculan
+ * uniendo los sketches de sus cursos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivitySketchService {
+
+    private static final int MAU_DAYS = 30;
+
+    private final ActivitySketchRepository sketchRepository;
+    private final CourseRepository courseRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<SketchKey, Pending> pending = new ConcurrentHashMap<>();
+
+    @Value("${app.activity.sketch.retention-days:400}")
+    private int retentionDays;
+
+    @Value("${app.activity.sketch.max-range-days:366}")
+    private int maxRangeDays;
+
+    private record SketchKey(Scope scope, long scopeId, LocalDate day) {
+    }
+
+    private record Pending(HyperLogLog sketch, AtomicBoolean dirty) {
+    }
+
+    // ----- Registro -----
+
+    /**
+     * Alumno autenticado en una petición (DAU/MAU)
+     */
+    public void recordActiveStudent(String email) {
+        record(Scope.PLATFORM, ActivitySketch.PLATFORM_SCOPE_ID, HyperLogLog.hash(email));
+    }
+
+    /**
+     * Alumno que avanza en un curso (alumnos distintos por curso y categoría)
+     */
+    public void recordCourseActivity(Long studentId, Long courseId) {
+        record(Scope.COURSE, courseId, HyperLogLog.hash(studentId));
+    }
+
+    /**
+     * El avance solo cuenta una vez confirmado: una actualización de progreso revertida no suma alumnos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseActivity(CourseActivityEvent event) {
+        recordCourseActivity(event.getStudentId(), event.getCourseId());
+    }
+
+    private void record(Scope scope, long scopeId, long hash) {
+        Pending entry = pending.computeIfAbsent(new SketchKey(scope, scopeId, LocalDate.now()),
+                key -> new Pending(new HyperLogLog(), new AtomicBoolean()));
+        if (entry.sketch().add(hash)) {
+            entry.dirty().set(true);
+        }
+    }
+
+    // ----- Consultas -----
+
+    /**
+     * DAU de hoy, MAU de los últimos 30 días y la serie diaria de ese periodo
+     */
+    @Transactional(readOnly = true)
+    public ActivityStatsDto getActivityStats() {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(MAU_DAYS - 1L);
+        Map<LocalDate, HyperLogLog> days = loadDays(Scope.PLATFORM, List.of(ActivitySketch.PLATFORM_SCOPE_ID),
+                start, today);
+        HyperLogLog month = union(days);
+        List<Long> trend = trend(days, start, today);
+
+        long dau = trend.get(trend.size() - 1);
+        long mau = Math.max(month.estimate(), dau);
+        return ActivityStatsDto.builder()
+                .dailyActiveUsers(dau)
+                .monthlyActiveUsers(mau)
+                .dauMauRatio(mau == 0 ? 0.0 : round(dau * 100.0 / mau))
+                .trendStartDate(start)
+                .dailyActiveTrend(trend)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public UniqueViewersDto getCourseViewers(Long courseId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Curso no encontrado con ID: " + courseId);
+        }
+        return viewers("COURSE", courseId, List.of(courseId), from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public UniqueViewersDto getCategoryViewers(Long categoryId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new IllegalArgumentException("Categoría no encontrada con ID: " + categoryId);
+        }
+        return viewers("CATEGORY", categoryId, courseRepository.findIdsByCategoryId(categoryId), from, to);
+    }
+
+    private UniqueViewersDto viewers(String scope, Long scopeId, List<Long> courseIds, LocalDate from, LocalDate to) {
+        Map<LocalDate, HyperLogLog> days = courseIds.isEmpty()
+                ? new TreeMap<>()
+                : loadDays(Scope.COURSE, courseIds, from, to);
+        return UniqueViewersDto.builder()
+                .scope(scope)
+                .scopeId(scopeId)
+                .from(from)
+                .to(to)
+                .uniqueViewers(union(days).estimate())
+                .dailyViewers(trend(days, from, to))
+                .build();
+    }
+
+    /**
+     * Un sketch por día en [from, to] uniendo los ámbitos pedidos, lo persistido y lo pendiente de volcar
+     */
+    private Map<LocalDate, HyperLogLog> loadDays(Scope scope, Collection<Long> scopeIds, LocalDate from,
+            LocalDate to) {
+        Map<LocalDate, HyperLogLog> days = new TreeMap<>();
+        Set<Long> ids = new HashSet<>(scopeIds);
+        for (ActivitySketch stored : sketchRepository.findRange(scope, scopeIds, from, to)) {
+            days.computeIfAbsent(stored.getDay(), day -> new HyperLogLog()).merge(stored.getRegisters());
+        }
+        for (Map.Entry<SketchKey, Pending> entry : pending.entrySet()) {
+            SketchKey key = entry.getKey();
+            if (key.scope() == scope && ids.contains(key.scopeId())
+                    && !key.day().isBefore(from) && !key.day().isAfter(to)) {
+                days.computeIfAbsent(key.day(), day -> new HyperLogLog()).merge(entry.getValue().sketch());
+            }
+        }
+        return days;
+    }
+
+    private static HyperLogLog union(Map<LocalDate, HyperLogLog> days) {
+        HyperLogLog union = new HyperLogLog();
+        days.values().forEach(union::merge);
+        return union;
+    }
+
+    private static List<Long> trend(Map<LocalDate, HyperLogLog> days, LocalDate from, LocalDate to) {
+        List<Long> trend = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            HyperLogLog sketch = days.get(day);
+            trend.add(sketch == null ? 0L : sketch.estimate());
+        }
+        return trend;
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la final");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("El rango no puede superar " + maxRangeDays + " días");
+        }
+    }
+
+    // ----- Persistencia -----
+
+    /**
+     * Vuelca los sketches modificados desde el último volcado. Los de días anteriores se sueltan
+     * de memoria una vez guardados.
+     */
+    @Scheduled(fixedDelayString = "${app.activity.sketch.flush-interval-ms:60000}",
+            initialDelayString = "${app.activity.sketch.flush-interval-ms:60000}")
+    public void flush() {
+        LocalDate today = LocalDate.now();
+        int written = 0;
+        for (Map.Entry<SketchKey, Pending> entry : pending.entrySet()) {
+            SketchKey key = entry.getKey();
+            Pending value = entry.getValue();
+            if (value.dirty().getAndSet(false)) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(key, value.sketch()));
+                    written++;
+                } catch (DataAccessException e) {
+                    // Se reintenta en el siguiente volcado (p. ej. otra instancia creó la fila a la vez)
+                    value.dirty().set(true);
+                    log.warn("No se pudo guardar el sketch de actividad {}: {}", key, e.getMessage());
+                }
+            }
+            if (key.day().isBefore(today) && !value.dirty().get()) {
+                pending.remove(key, value);
+            }
+        }
+        if (written > 0) {
+            log.debug("Volcados {} sketches de actividad", written);
+        }
+    }
+
+    /**
+     * Lee y combina con la fila bloqueada, así un volcado simultáneo de otra instancia espera y combina
+     * sobre el resultado en vez de sobrescribirlo. Si ambas intentan crear la fila, la restricción única
+     * hace fallar a una y se reintenta en el siguiente volcado.
+     */
+    private void persist(SketchKey key, HyperLogLog sketch) {
+        ActivitySketch stored = sketchRepository.findForUpdate(key.scope(), key.scopeId(), key.day())
+                .orElse(null);
+        if (stored == null) {
+            stored = new ActivitySketch();
+            stored.setScope(key.scope());
+            stored.setScopeId(key.scopeId());
+            stored.setDay(key.day());
+            stored.setRegisters(sketch.toBytes());
+        } else {
+            HyperLogLog merged = HyperLogLog.fromBytes(stored.getRegisters());
+            merged.merge(sketch);
+            stored.setRegisters(merged.toBytes());
+        }
+        sketchRepository.save(stored);
+    }
+
+    @Scheduled(cron = "${app.activity.sketch.retention-cron:0 45 2 * * *}")
+    public void pruneExpired() {
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        Integer pruned = transactionTemplate.execute(status -> sketchRepository.deleteOlderThan(cutoff));
+        log.info("Eliminados {} sketches de actividad anteriores a {}", pruned, cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron volcar los sketches de actividad al cerrar: {}", e.getMessage());
+        }
+    }
+
+    private static double round(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
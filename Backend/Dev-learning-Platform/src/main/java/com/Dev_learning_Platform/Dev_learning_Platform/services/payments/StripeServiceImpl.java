@@ -5,13 +5,14 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.payments.CreatePaymentSessionRequest;
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.payments.CreatePaymentSessionResponse;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
-import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Payment;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.PaymentSession;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
@@ -40,6 +41,7 @@ public class StripeServiceImpl implements StripeService {
     private final PaymentSessionRepository paymentSessionRepository;
     private final PaymentRepository paymentRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${stripe.webhook.secret}")
     private String webhookSecret;
@@ -220,19 +222,12 @@ public class StripeServiceImpl implements StripeService {
 
     private void createEnrollment(User user, Course course, Payment payment) {
         try {
-            // Verificar si ya existe la inscripción
-            boolean alreadyEnrolled = enrollmentRepository.existsByStudentIdAndCourseId(
-                    user.getId(), course.getId());
-
-            if (!alreadyEnrolled) {
-                Enrollment enrollment = new Enrollment();
-                enrollment.setStudent(user);
-                enrollment.setCourse(course);
-                enrollment.setPayment(payment);
-                enrollment.setEnrolledAt(LocalDateTime.now());
-                
-                enrollmentRepository.save(enrollment);
-                
+            // Inserción idempotente: los reintentos del webhook no generan duplicados ni errores
+            boolean created = enrollmentRepository.insertIfAbsent(
+                    user.getId(), course.getId(), payment.getId(), LocalDateTime.now()) == 1;
+
+            if (created) {
+                eventPublisher.publishEvent(new EnrollmentsCreatedEvent(course.getId(), 1));
                 log.info("Inscripción creada para usuario: {} en curso: {}", 
                         user.getId(), course.getId());
             } else {
@@ -0,0 +1,389 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services.thumbnails;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Miniaturas de videos de YouTube servidas desde disco.
+ *
+ * <p>La primera petición de un video descarga la mejor resolución disponible (maxres, sd, hq, mq),
+ * genera todas las variantes de tamaño y las guarda bajo el directorio de subidas locales. El directorio
+ * tiene un límite en bytes y se recorta por uso reciente (LRU); al arrancar, el índice se reconstruye con
+ * la fecha de modificación de cada fichero.
+ *
+ * <p>El endpoint es público, así que solo se descargan ids que usa algún video de la plataforma y las
+ * descargas simultáneas están limitadas. Las peticiones simultáneas del mismo video comparten una única
+ * descarga, y los ids desconocidos o sin miniatura se recuerdan un tiempo (con un número máximo de
+ * entradas) para no consultar a YouTube ni a la base de datos en cada render.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VideoThumbnailService {
+
+    private static final String[] SOURCE_RESOLUTIONS = {"maxresdefault", "sddefault", "hqdefault", "mqdefault"};
+    // YouTube responde con una imagen gris de 120x90 cuando no tiene la resolución pedida
+    private static final int PLACEHOLDER_WIDTH = 120;
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final String EXTENSION = ".jpg";
+
+    public enum Size {
+        SMALL(320), MEDIUM(640), LARGE(1280);
+
+        private final int width;
+
+        Size(int width) {
+            this.width = width;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+    }
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    // Orden de acceso: el primero es el menos usado. Protegido por su propio monitor
+    private final LinkedHashMap<Path, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final CourseVideoRepository courseVideoRepository;
+
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    // Orden de inserción: al superar el máximo se descarta la entrada más antigua. Protegido por su monitor
+    private final LinkedHashMap<String, Long> missingUntil = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > missingMaxEntries;
+        }
+    };
+    private Semaphore fetchPermits;
+
+    @Value("${app.thumbnails.origin:https://img.youtube.com}")
+    private String origin;
+
+    @Value("${app.thumbnails.cache-dir:${app.upload.local.base-path:uploads}/thumbnails}")
+    private String cacheDir;
+
+    @Value("${app.thumbnails.cache-max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${app.thumbnails.missing-ttl-ms:600000}")
+    private long missingTtlMs;
+
+    @Value("${app.thumbnails.missing-max-entries:10000}")
+    private int missingMaxEntries;
+
+    @Value("${app.thumbnails.fetch-timeout-ms:5000}")
+    private long fetchTimeoutMs;
+
+    @Value("${app.thumbnails.max-concurrent-fetches:4}")
+    private int maxConcurrentFetches;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        fetchPermits = new Semaphore(maxConcurrentFetches);
+        root = Paths.get(cacheDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(root)) {
+            listing.forEach(files::add);
+        }
+        files.sort(Comparator.comparing(VideoThumbnailService::lastModified));
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(EXTENSION)) {
+                register(file, Files.size(file));
+            } else {
+                // Restos de escrituras interrumpidas
+                Files.deleteIfExists(file);
+            }
+        }
+        trim();
+        log.info("Caché de miniaturas en {}: {} ficheros, {} bytes", root, entries.size(), totalBytes);
+    }
+
+    /**
+     * Fichero con la miniatura del video en el tamaño pedido, descargándola si aún no está en disco.
+     *
+     * @return vacío si ningún video de la plataforma usa ese id o YouTube no tiene miniatura para él
+     * @throws IllegalArgumentException si el id no tiene el formato de YouTube
+     * @throws IOException si la descarga o el procesado fallan, o hay demasiadas descargas en curso
+     */
+    public Optional<Path> getThumbnail(String youtubeVideoId, Size size) throws IOException {
+        if (!CourseVideo.isValidVideoId(youtubeVideoId)) {
+            throw new IllegalArgumentException("Id de video de YouTube inválido");
+        }
+        Path file = root.resolve(fileName(youtubeVideoId, size));
+        if (touch(file)) {
+            return Optional.of(file);
+        }
+        if (isRememberedMissing(youtubeVideoId)) {
+            return Optional.empty();
+        }
+        if (!courseVideoRepository.existsByYoutubeVideoId(youtubeVideoId)) {
+            rememberMissing(youtubeVideoId);
+            return Optional.empty();
+        }
+        // Con un límite muy pequeño la variante recién guardada puede haberse recortado ya
+        return fetchOnce(youtubeVideoId) && touch(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    public long getCachedBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    private boolean fetchOnce(String youtubeVideoId) throws IOException {
+        CompletableFuture<Boolean> mine = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(youtubeVideoId, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            boolean found = downloadWithPermit(youtubeVideoId);
+            if (found) {
+                synchronized (missingUntil) {
+                    missingUntil.remove(youtubeVideoId);
+                }
+            } else {
+                rememberMissing(youtubeVideoId);
+            }
+            mine.complete(found);
+            return found;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(youtubeVideoId, mine);
+        }
+    }
+
+    private boolean await(CompletableFuture<Boolean> running) throws IOException {
+        try {
+            return running.get(fetchTimeoutMs * SOURCE_RESOLUTIONS.length, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Descarga de miniatura interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error descargando la miniatura: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Tiempo de espera agotado descargando la miniatura", e);
+        }
+    }
+
+    private boolean isRememberedMissing(String youtubeVideoId) {
+        synchronized (missingUntil) {
+            Long until = missingUntil.get(youtubeVideoId);
+            if (until == null) {
+                return false;
+            }
+            if (until - System.nanoTime() > 0) {
+                return true;
+            }
+            missingUntil.remove(youtubeVideoId);
+            return false;
+        }
+    }
+
+    private void rememberMissing(String youtubeVideoId) {
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(missingTtlMs);
+        synchronized (missingUntil) {
+            // Se reinserta para que el orden refleje el último fallo
+            missingUntil.remove(youtubeVideoId);
+            missingUntil.put(youtubeVideoId, until);
+        }
+    }
+
+    /**
+     * Limita las descargas simultáneas (red y redimensionado) que pueden provocar peticiones anónimas.
+     */
+    private boolean downloadWithPermit(String youtubeVideoId) throws IOException {
+        try {
+            if (!fetchPermits.tryAcquire(fetchTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Demasiadas descargas de miniaturas en curso");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Descarga de miniatura interrumpida", e);
+        }
+        try {
+            return download(youtubeVideoId);
+        } finally {
+            fetchPermits.release();
+        }
+    }
+
+    /**
+     * Prueba las resoluciones de mayor a menor y genera las variantes con la primera imagen real.
+     */
+    private boolean download(String youtubeVideoId) throws IOException {
+        for (String resolution : SOURCE_RESOLUTIONS) {
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create(origin + "/vi/" + youtubeVideoId + "/" + resolution + ".jpg"))
+                    .timeout(Duration.ofMillis(fetchTimeoutMs))
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Descarga de miniatura interrumpida", e);
+            }
+            if (response.statusCode() != 200) {
+                continue;
+            }
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(response.body()));
+            if (source == null || source.getWidth() <= PLACEHOLDER_WIDTH) {
+                continue;
+            }
+            for (Size size : Size.values()) {
+                store(root.resolve(fileName(youtubeVideoId, size)), resize(source, size.getWidth()));
+            }
+            log.debug("Miniatura {} descargada en resolución {}", youtubeVideoId, resolution);
+            return true;
+        }
+        return false;
+    }
+
+    // Nunca amplía: una fuente más estrecha que la variante se guarda a su tamaño original
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Escribe en un temporal y lo mueve de forma atómica, así nunca se sirve un fichero a medias.
+     */
+    private void store(Path file, BufferedImage image) throws IOException {
+        Path temp = Files.createTempFile(root, file.getFileName().toString(), ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (OutputStream out = Files.newOutputStream(temp);
+                    ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+                ImageWriteParam params = writer.getDefaultWriteParam();
+                params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                params.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(imageOut);
+                writer.write(null, new IIOImage(image, null, null), params);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        register(file, Files.size(file));
+        trim();
+    }
+
+    private boolean touch(Path file) {
+        synchronized (entries) {
+            return entries.get(file) != null;
+        }
+    }
+
+    private void register(Path file, long bytes) {
+        synchronized (entries) {
+            Long previous = entries.put(file, bytes);
+            totalBytes += bytes - (previous != null ? previous : 0L);
+        }
+    }
+
+    /**
+     * Elimina los ficheros menos usados hasta quedar por debajo del límite.
+     */
+    private void trim() {
+        List<Path> evicted = new ArrayList<>();
+        synchronized (entries) {
+            Iterator<Map.Entry<Path, Long>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<Path, Long> eldest = it.next();
+                totalBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        }
+        for (Path file : evicted) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar la miniatura {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private static String fileName(String youtubeVideoId, Size size) {
+        return youtubeVideoId + "-" + size.name().toLowerCase(Locale.ROOT) + EXTENSION;
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
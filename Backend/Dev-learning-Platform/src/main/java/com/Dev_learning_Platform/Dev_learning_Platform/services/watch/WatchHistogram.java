@@ -0,0 +1,106 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services.watch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de posiciones de reproducción de un video, en cubos de ancho fijo.
+ *
+ * <p>Los contadores están repartidos en franjas (una por grupo de hilos) para que los latidos simultáneos
+ * del mismo video no compitan por la misma línea de caché; registrar un latido no reserva memoria.
+ * Leer suma todas las franjas y vaciar las pone a cero de forma atómica celda a celda, así que ningún
+ * incremento concurrente se pierde.
+ *
+ * <p>Un histograma que se quita del mapa se marca como retirado: quien registró en él después de su último
+ * vaciado lo comprueba y pasa lo suyo al histograma vigente.
+ */
+public class WatchHistogram {
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final int bucketSeconds;
+    private final int buckets;
+    private volatile boolean retired;
+
+    /**
+     * @param stripes número de franjas (se redondea a potencia de dos)
+     */
+    public WatchHistogram(int bucketSeconds, int maxSeconds, int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new AtomicLongArray[size];
+        this.stripeMask = size - 1;
+        this.bucketSeconds = bucketSeconds;
+        this.buckets = maxSeconds / bucketSeconds + 1;
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new AtomicLongArray(buckets);
+        }
+    }
+
+    public int getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * Marca el histograma como quitado del mapa; se llama antes de su último vaciado.
+     */
+    public void retire() {
+        retired = true;
+    }
+
+    public boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * Suma un latido en la posición indicada; las posiciones fuera de rango van al último cubo.
+     */
+    public void record(int offsetSeconds) {
+        int bucket = Math.min(Math.max(offsetSeconds, 0) / bucketSeconds, buckets - 1);
+        // Misma franja para el mismo hilo: los hilos del pool se reparten las franjas
+        int stripe = (int) Thread.currentThread().threadId() & stripeMask;
+        stripes[stripe].incrementAndGet(bucket);
+    }
+
+    /**
+     * Suma de todas las franjas sin vaciarlas.
+     */
+    public long[] snapshot() {
+        long[] counts = new long[buckets];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < buckets; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Vacía el histograma y devuelve lo acumulado desde el último vaciado.
+     */
+    public long[] drain() {
+        long[] counts = new long[buckets];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < buckets; i++) {
+                if (stripe.get(i) != 0) {
+                    counts[i] += stripe.getAndSet(i, 0);
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Devuelve al histograma unos conteos vaciados que no se pudieron guardar.
+     */
+    public void restore(long[] counts) {
+        AtomicLongArray stripe = stripes[0];
+        for (int i = 0; i < Math.min(counts.length, buckets); i++) {
+            if (counts[i] != 0) {
+                stripe.addAndGet(i, counts[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services.watch;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.WatchHeartbeatDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.instructor.VideoWatchCurveDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseVideoChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.VideoWatchBucketRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseSyllabusService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseVideoService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dónde abandonan los alumnos dentro de cada lección.
+ *
+ * <p>El reproductor envía un latido por tramo de {@code bucket-seconds} con la posición actual; los
+ * latidos se suman en memoria en un histograma por video y se vuelcan periódicamente a
+ * {@code video_watch_buckets}. Así el número de latidos de un tramo equivale a las reproducciones que
+ * pasaron por él. Si un volcado falla, los conteos vuelven al histograma para el siguiente intento.
+ *
+ * <p>Los datos de cada video (curso y duración) se cachean para validar los latidos sin una consulta por
+ * lote, y el acceso del alumno se comprueba con la caché de permisos del temario.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WatchTimeService {
+
+    private final CourseVideoRepository courseVideoRepository;
+    private final VideoWatchBucketRepository videoWatchBucketRepository;
+    private final CourseVideoService courseVideoService;
+    private final CourseSyllabusService courseSyllabusService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, WatchHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<Long, VideoInfo> videos = new ConcurrentHashMap<>();
+
+    @Value("${app.watch.bucket-seconds:10}")
+    private int bucketSeconds;
+
+    @Value("${app.watch.max-batch:200}")
+    private int maxBatch;
+
+    @Value("${app.watch.stripes:8}")
+    private int stripes;
+
+    private record VideoInfo(Long courseId, int durationSeconds) {
+    }
+
+    // ----- Ingesta -----
+
+    /**
+     * Registra un lote de latidos del alumno. Se descartan los de videos inexistentes o inactivos, los de
+     * cursos a los que no tiene acceso y las posiciones fuera de la duración del video.
+     *
+     * @return número de latidos aceptados
+     */
+    public int recordHeartbeats(String email, List<WatchHeartbeatDto> events) {
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        if (events.size() > maxBatch) {
+            throw new IllegalArgumentException("El lote no puede superar " + maxBatch + " latidos");
+        }
+        loadMissingVideos(events);
+
+        Map<Long, Boolean> allowedCourses = new HashMap<>();
+        int accepted = 0;
+        for (WatchHeartbeatDto event : events) {
+            if (event == null || event.getVideoId() == null || event.getOffsetSeconds() == null) {
+                continue;
+            }
+            VideoInfo video = videos.get(event.getVideoId());
+            int offset = event.getOffsetSeconds();
+            if (video == null || offset < 0 || offset > video.durationSeconds()) {
+                continue;
+            }
+            if (!allowedCourses.computeIfAbsent(video.courseId(),
+                    courseId -> courseSyllabusService.canView(email, courseId))) {
+                continue;
+            }
+            record(event.getVideoId(), offset);
+            accepted++;
+        }
+        return accepted;
+    }
+
+    private void record(Long videoId, int offset) {
+        WatchHistogram histogram = histograms.computeIfAbsent(videoId, id -> newHistogram());
+        histogram.record(offset);
+        moveIfRetired(videoId, histogram);
+    }
+
+    private void restore(Long videoId, long[] counts) {
+        WatchHistogram histogram = histograms.computeIfAbsent(videoId, id -> newHistogram());
+        histogram.restore(counts);
+        moveIfRetired(videoId, histogram);
+    }
+
+    /**
+     * El volcado puede quitar un histograma inactivo entre que se obtiene del mapa y se escribe en él. Lo
+     * escrito después de su último vaciado se pasa al histograma vigente, que a su vez puede haberse retirado.
+     */
+    private void moveIfRetired(Long videoId, WatchHistogram histogram) {
+        while (histogram.isRetired()) {
+            long[] late = histogram.drain();
+            if (isEmpty(late)) {
+                return;
+            }
+            histogram = histograms.computeIfAbsent(videoId, id -> newHistogram());
+            histogram.restore(late);
+        }
+    }
+
+    private void loadMissingVideos(List<WatchHeartbeatDto> events) {
+        Set<Long> missing = new HashSet<>();
+        for (WatchHeartbeatDto event : events) {
+            if (event != null && event.getVideoId() != null && !videos.containsKey(event.getVideoId())) {
+                missing.add(event.getVideoId());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (Object[] row : courseVideoRepository.findWatchMetadata(missing)) {
+            Integer duration = (Integer) row[2];
+            videos.put((Long) row[0], new VideoInfo((Long) row[1],
+                    duration != null ? duration : CourseVideoService.getMaxVideoDuration()));
+        }
+    }
+
+    private WatchHistogram newHistogram() {
+        return new WatchHistogram(bucketSeconds, CourseVideoService.getMaxVideoDuration(), stripes);
+    }
+
+    /**
+     * Un cambio de videos puede dar de baja o acortar lecciones: sus datos se vuelven a leer.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseVideoChanged(CourseVideoChangedEvent event) {
+        videos.values().removeIf(video -> video.courseId().equals(event.getCourseId()));
+    }
+
+    // ----- Consultas -----
+
+    /**
+     * Curva de abandono de una lección: lo guardado más lo pendiente de volcar. Solo para el instructor
+     * del curso o un administrador.
+     *
+     * @throws IllegalArgumentException si el video no existe
+     * @throws SecurityException si el usuario no es el instructor del curso ni administrador
+     */
+    @Transactional(readOnly = true)
+    public VideoWatchCurveDto getCurve(Long videoId, User requester) {
+        CourseVideo video = courseVideoService.getVideoById(videoId);
+        if (requester.getRole() != User.Role.ADMIN
+                && !video.getCourse().getInstructor().getId().equals(requester.getId())) {
+            throw new SecurityException("Solo el instructor del curso puede ver la retención de sus videos");
+        }
+
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (Object[] row : videoWatchBucketRepository.findCurveByVideoId(videoId)) {
+            counts.merge(((Number) row[0]).intValue(), ((Number) row[1]).longValue(), Long::sum);
+        }
+        WatchHistogram pending = histograms.get(videoId);
+        if (pending != null) {
+            long[] snapshot = pending.snapshot();
+            for (int i = 0; i < snapshot.length; i++) {
+                if (snapshot[i] != 0) {
+                    counts.merge(i * pending.getBucketSeconds(), snapshot[i], Long::sum);
+                }
+            }
+        }
+
+        int duration = video.getDurationSeconds() != null ? video.getDurationSeconds()
+                : counts.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        long base = counts.getOrDefault(0, 0L);
+        if (base == 0) {
+            base = counts.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+        }
+        List<VideoWatchCurveDto.Point> points = new ArrayList<>();
+        for (int start = 0; start <= duration; start += bucketSeconds) {
+            long heartbeats = counts.getOrDefault(start, 0L);
+            points.add(new VideoWatchCurveDto.Point(start, heartbeats,
+                    base == 0 ? 0.0 : round(heartbeats * 100.0 / base)));
+        }
+        return VideoWatchCurveDto.builder()
+                .videoId(videoId)
+                .courseId(video.getCourse().getId())
+                .durationSeconds(video.getDurationSeconds())
+                .bucketSeconds(bucketSeconds)
+                .points(points)
+                .build();
+    }
+
+    // ----- Persistencia -----
+
+    /**
+     * Vuelca los histogramas con latidos nuevos en un único batch JDBC. Los videos sin actividad desde el
+     * último volcado se sueltan de memoria.
+     */
+    @Scheduled(fixedDelayString = "${app.watch.flush-interval-ms:60000}",
+            initialDelayString = "${app.watch.flush-interval-ms:60000}")
+    public void flush() {
+        Map<Long, long[]> drained = new HashMap<>();
+        List<SqlParameterSource> rows = new ArrayList<>();
+        for (Map.Entry<Long, WatchHistogram> entry : histograms.entrySet()) {
+            WatchHistogram histogram = entry.getValue();
+            long[] counts = histogram.drain();
+            if (isEmpty(counts) && histograms.remove(entry.getKey(), histogram)) {
+                // Un latido que llegó justo antes de quitarlo se recoge con un último vaciado; los que lleguen
+                // después ven el histograma retirado y se mueven al nuevo (moveIfRetired)
+                histogram.retire();
+                counts = histogram.drain();
+            }
+            if (isEmpty(counts)) {
+                continue;
+            }
+            drained.put(entry.getKey(), counts);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    rows.add(new MapSqlParameterSource()
+                            .addValue("videoId", entry.getKey())
+                            .addValue("startSecond", i * histogram.getBucketSeconds())
+                            .addValue("heartbeats", counts[i]));
+                }
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(VideoWatchBucketRepository.UPSERT_SQL, rows.toArray(SqlParameterSource[]::new)));
+            log.debug("Volcados {} tramos de reproducción de {} videos", rows.size(), drained.size());
+        } catch (DataAccessException e) {
+            drained.forEach(this::restore);
+            log.warn("No se pudieron guardar los latidos de reproducción: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron volcar los latidos de reproducción al cerrar: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isEmpty(long[] counts) {
+        for (long count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double round(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
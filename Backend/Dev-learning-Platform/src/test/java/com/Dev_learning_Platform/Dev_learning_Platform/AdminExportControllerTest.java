@@ -0,0 +1,119 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.time.Instant;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.config.TestConfig;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
+
+/**
+ * Exportaciones de administración: contenido en streaming, cabeceras de descarga y acceso solo para ADMIN.
+ * Sin @Transactional: el cuerpo se escribe en otro hilo y debe ver el usuario ya confirmado.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+class AdminExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUserName("exportado");
+        user.setLastName("Test");
+        user.setEmail("exportado" + Instant.now().toEpochMilli() + "@example.com");
+        user.setPassword("x");
+        user.setRole(User.Role.STUDENT);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("ADMIN descarga los usuarios en CSV con cabecera y una fila por usuario")
+    void exportUsers_asAdmin_streamsCsv() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/admin/exports/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("attachment; filename=\"usuarios-")))
+                .andExpect(content().string(startsWith("id,userName,lastName,email,role,active,createdAt\r\n")))
+                .andExpect(content().string(containsString(
+                        user.getId() + ",exportado,Test," + user.getEmail() + ",STUDENT,true,")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("ADMIN descarga los usuarios en NDJSON, un objeto por línea")
+    void exportUsers_asAdmin_streamsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/admin/exports/users").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString(".ndjson")))
+                .andExpect(content().string(containsString("\"email\":\"" + user.getEmail() + "\"")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Un formato desconocido responde 400 sin empezar la descarga")
+    void exportUsers_unknownFormat_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/admin/exports/users").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    @DisplayName("Un usuario sin rol ADMIN no puede exportar")
+    void exportPayments_asStudent_isForbidden() throws Exception {
+        mockMvc.perform(get("/api/admin/exports/payments"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Sin autenticación no se puede exportar")
+    void exportEnrollments_anonymous_isRejected() throws Exception {
+        mockMvc.perform(get("/api/admin/exports/enrollments"))
+                .andExpect(status().isForbidden());
+    }
+}
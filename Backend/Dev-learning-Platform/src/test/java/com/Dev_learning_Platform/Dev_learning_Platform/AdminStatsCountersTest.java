@@ -0,0 +1,145 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.CourseStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.EnrollmentStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseEnrollmentsSuspendedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseStateChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentLifecycleEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent.EventType;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.AdminStatsCounters;
+
+/**
+ * Test unitario de los contadores del panel: eventos incrementales, reentregas del outbox y reconciliación.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AdminStatsCountersTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private AdminStatsCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        enrollmentsInDatabase(3, 0, 0);
+        counters.reconcile();
+    }
+
+    private void enrollmentsInDatabase(long active, long completed, long suspended) {
+        when(enrollmentRepository.countGroupByStatus()).thenReturn(List.of(
+                new Object[] {EnrollmentStatus.ACTIVE, active},
+                new Object[] {EnrollmentStatus.COMPLETED, completed},
+                new Object[] {EnrollmentStatus.SUSPENDED, suspended}));
+    }
+
+    private static EnrollmentLifecycleEvent completed(Long outboxId, Long enrollmentId) {
+        return new EnrollmentLifecycleEvent(outboxId, EventType.COMPLETED, enrollmentId, 1L, 1L, 100,
+                EnrollmentStatus.ACTIVE, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Un evento del outbox entregado dos veces solo mueve el contador una vez")
+    void enrollmentLifecycle_redelivered_countsOnce() {
+        counters.onEnrollmentLifecycle(completed(7L, 70L));
+        counters.onEnrollmentLifecycle(completed(7L, 70L));
+        counters.onEnrollmentLifecycle(completed(8L, 80L));
+
+        EnrollmentStatsDto stats = counters.enrollmentStats();
+        assertEquals(3, stats.getTotalEnrollments());
+        assertEquals(1, stats.getInProgressEnrollments());
+        assertEquals(2, stats.getCompletedEnrollments());
+    }
+
+    @Test
+    @DisplayName("Los hitos de progreso y los eventos sin cambio de estado no alteran los contadores")
+    void enrollmentLifecycle_withoutStatusChange_isIgnored() {
+        counters.onEnrollmentLifecycle(new EnrollmentLifecycleEvent(9L, EventType.PROGRESS_MILESTONE, 90L, 1L, 1L,
+                50, EnrollmentStatus.ACTIVE, LocalDateTime.now()));
+        counters.onEnrollmentLifecycle(new EnrollmentLifecycleEvent(10L, EventType.COMPLETED, 90L, 1L, 1L,
+                100, EnrollmentStatus.COMPLETED, LocalDateTime.now()));
+
+        assertEquals(3, counters.enrollmentStats().getInProgressEnrollments());
+        assertEquals(0, counters.enrollmentStats().getCompletedEnrollments());
+    }
+
+    @Test
+    @DisplayName("La reconciliación corrige la desviación de los incrementos")
+    void reconcile_overridesIncrementalDrift() {
+        counters.onEnrollmentsCreated(new EnrollmentsCreatedEvent(1L, 5));
+        assertEquals(8, counters.enrollmentStats().getTotalEnrollments());
+
+        enrollmentsInDatabase(6, 1, 0);
+        counters.reconcile();
+
+        EnrollmentStatsDto stats = counters.enrollmentStats();
+        assertEquals(7, stats.getTotalEnrollments());
+        assertEquals(6, stats.getInProgressEnrollments());
+        assertEquals(1, stats.getCompletedEnrollments());
+        assertNotNull(counters.getLastReconciledAt());
+    }
+
+    @Test
+    @DisplayName("La suspensión masiva recuenta las inscripciones")
+    void courseEnrollmentsSuspended_recountsEnrollments() {
+        enrollmentsInDatabase(1, 0, 2);
+
+        counters.onCourseEnrollmentsSuspended(new CourseEnrollmentsSuspendedEvent(1L, 2));
+
+        assertEquals(1, counters.enrollmentStats().getInProgressEnrollments());
+        assertEquals(3, counters.enrollmentStats().getTotalEnrollments());
+    }
+
+    @Test
+    @DisplayName("Los cambios de estado de un curso mueven totales y publicados")
+    void courseStateChanged_adjustsCourseCounters() {
+        CourseStateChangedEvent.State draft = new CourseStateChangedEvent.State(true, false, 3L);
+        CourseStateChangedEvent.State published = new CourseStateChangedEvent.State(true, true, 3L);
+
+        counters.onCourseStateChanged(new CourseStateChangedEvent(1L, null, draft));
+        counters.onCourseStateChanged(new CourseStateChangedEvent(2L, null, draft));
+        counters.onCourseStateChanged(new CourseStateChangedEvent(1L, draft, published));
+        counters.onCourseStateChanged(new CourseStateChangedEvent(2L, draft, null));
+
+        CourseStatsDto stats = counters.courseStats();
+        assertEquals(1, stats.getTotalCourses());
+        assertEquals(1, stats.getPublishedCourses());
+        assertEquals(0, stats.getDraftCourses());
+    }
+}
@@ -0,0 +1,226 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistCourse;
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistUser;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.enrollments.BulkEnrollmentSummaryDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.BulkEnrollmentService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Inscripción masiva contra H2 en modo MySQL: estados por fila, resumen, eventos y salida NDJSON.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BulkEnrollmentServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Object> events = new ArrayList<>();
+    private Course course;
+    private User ana;
+    private User luis;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = persistUser(entityManager, "instructor", User.Role.INSTRUCTOR);
+        ana = persistUser(entityManager, "ana", User.Role.STUDENT);
+        luis = persistUser(entityManager, "luis", User.Role.STUDENT);
+
+        course = persistCourse(entityManager, instructor);
+        entityManager.flush();
+    }
+
+    private BulkEnrollmentService service(NamedParameterJdbcTemplate template, int batchSize) {
+        BulkEnrollmentService service = new BulkEnrollmentService(mock(CourseService.class), userRepository,
+                enrollmentRepository, template, new TransactionTemplate(transactionManager), objectMapper,
+                events::add);
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        return service;
+    }
+
+    /**
+     * Como MySQL con rewriteBatchedStatements=true: ejecuta el batch pero no informa del resultado por fila.
+     */
+    private NamedParameterJdbcTemplate rewritingTemplate() {
+        return new NamedParameterJdbcTemplate(jdbcTemplate.getJdbcTemplate()) {
+            @Override
+            public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs) {
+                int[] counts = super.batchUpdate(sql, batchArgs);
+                Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                return counts;
+            }
+        };
+    }
+
+    private List<JsonNode> run(BulkEnrollmentService service, String csv) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        service.enrollCohort(course.getId(), new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                false, output);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> statuses(List<JsonNode> lines) {
+        return lines.subList(0, lines.size() - 1).stream().map(line -> line.get("status").asText()).toList();
+    }
+
+    private long createdEvents() {
+        return events.stream().filter(EnrollmentsCreatedEvent.class::isInstance)
+                .mapToLong(event -> ((EnrollmentsCreatedEvent) event).getCount()).sum();
+    }
+
+    @Test
+    @DisplayName("Con lotes reescritos (SUCCESS_NO_INFO) las filas ya inscritas no cuentan como nuevas")
+    void enrollCohort_withRewrittenBatches_reportsRealOutcome() throws IOException {
+        enrollmentRepository.insertIfAbsent(ana.getId(), course.getId(), null, LocalDateTime.now());
+
+        List<JsonNode> lines = run(service(rewritingTemplate(), 2),
+                "email\n" + ana.getEmail() + "\n" + luis.getEmail() + "\nnadie@example.com\n");
+
+        assertEquals(List.of("ALREADY_ENROLLED", "ENROLLED", "USER_NOT_FOUND"), statuses(lines));
+        JsonNode summary = lines.get(lines.size() - 1);
+        assertEquals(1, summary.get("enrolled").asLong());
+        assertEquals(1, summary.get("alreadyEnrolled").asLong());
+        assertEquals(1, summary.get("failed").asLong());
+        assertEquals(1, createdEvents());
+        assertEquals(2, enrollmentRepository.findByCourseId(course.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Lotes mixtos: cada fila sale en orden con su estado y el resumen cuadra con las filas")
+    void enrollCohort_mixedBatches_streamsRowResultsAndSummary() throws IOException {
+        User instructor = course.getInstructor();
+        String csv = "email;nombre\n"
+                + ana.getEmail() + ";Ana\n"
+                + "\"" + luis.getEmail() + "\"\n"                   // entre comillas
+                + "sin-arroba\n"
+                + "\n"                                                  // líneas vacías se ignoran
+                + instructor.getEmail() + "\n"
+                + "desconocido@example.com\n"
+                + ana.getEmail() + "\n";                               // repetida en otro lote
+
+        List<JsonNode> lines = run(service(jdbcTemplate, 3), csv);
+
+        assertEquals(List.of("ENROLLED", "ENROLLED", "INVALID_EMAIL", "NOT_A_STUDENT", "USER_NOT_FOUND",
+                "ALREADY_ENROLLED"), statuses(lines));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), lines.subList(0, 6).stream()
+                .map(line -> line.get("row").asLong()).toList());
+        JsonNode summary = lines.get(lines.size() - 1);
+        assertEquals(course.getId(), summary.get("courseId").asLong());
+        assertEquals(6, summary.get("totalRows").asLong());
+        assertEquals(2, summary.get("enrolled").asLong());
+        assertEquals(1, summary.get("alreadyEnrolled").asLong());
+        assertEquals(3, summary.get("failed").asLong());
+        assertEquals(2, createdEvents());
+    }
+
+    @Test
+    @DisplayName("Un email repetido en el mismo lote se inscribe una sola vez")
+    void enrollCohort_duplicateInSameBatch_enrollsOnce() throws IOException {
+        String json = "[\"" + ana.getEmail() + "\", {\"email\": \"" + ana.getEmail() + "\"}, 42]";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        BulkEnrollmentSummaryDto summary = service(jdbcTemplate, 10).enrollCohort(course.getId(),
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), true, output);
+
+        assertEquals(3, summary.getTotalRows());
+        assertEquals(1, summary.getEnrolled());
+        assertEquals(1, summary.getAlreadyEnrolled());
+        assertEquals(1, summary.getFailed());   // elemento que no es email
+        assertEquals(1, createdEvents());
+        assertEquals(1, enrollmentRepository.findByCourseId(course.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Repetir la misma carga no crea inscripciones ni publica eventos")
+    void enrollCohort_rerun_isIdempotent() throws IOException {
+        String csv = ana.getEmail() + "\n" + luis.getEmail() + "\n";
+        run(service(jdbcTemplate, 500), csv);
+        events.clear();
+
+        List<JsonNode> lines = run(service(jdbcTemplate, 500), csv);
+
+        assertEquals(List.of("ALREADY_ENROLLED", "ALREADY_ENROLLED"), statuses(lines));
+        assertEquals(0, createdEvents());
+        assertEquals(2, enrollmentRepository.findByCourseId(course.getId()).size());
+    }
+
+    @Test
+    @DisplayName("JSON mal formado a mitad: se aplican las filas leídas y se emiten el error y el resumen")
+    void enrollCohort_malformedJson_writesErrorAndSummary() throws IOException {
+        String json = "[\"" + ana.getEmail() + "\", \"" + luis.getEmail() + "\", {\"email\": ";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        BulkEnrollmentSummaryDto summary = service(jdbcTemplate, 1).enrollCohort(course.getId(),
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), true, output);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        assertEquals(4, lines.size());
+        assertEquals("ENROLLED", lines.get(0).get("status").asText());
+        assertEquals("ENROLLED", lines.get(1).get("status").asText());
+        assertEquals(3, lines.get(2).get("row").asLong());
+        assertTrue(lines.get(2).get("error").asText().startsWith("Entrada no válida"));
+        assertEquals(2, lines.get(3).get("totalRows").asLong());
+        assertEquals(2, summary.getEnrolled());
+        assertEquals(2, enrollmentRepository.findByCourseId(course.getId()).size());
+    }
+}
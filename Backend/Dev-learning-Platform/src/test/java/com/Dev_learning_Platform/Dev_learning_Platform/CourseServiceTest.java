@@ -15,11 +15,13 @@ import org.mockito.ArgumentCaptor;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.Dev_learning_Platform.Dev_learning_Platform.dtos.CourseCreateDto;
 import com.Dev_learning_Platform.Dev_learning_Platform.models.Category;
@@ -30,6 +32,7 @@ import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseReposi
 import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.CategoryService;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.EnrollmentSuspensionService;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.SubcategoryService;
 import com.Dev_learning_Platform.Dev_learning_Platform.services.UserService;
 
@@ -55,6 +58,12 @@ class CourseServiceTest {
     @Mock
     private EnrollmentRepository enrollmentRepository;
 
+    @Mock
+    private EnrollmentSuspensionService enrollmentSuspensionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -302,4 +311,21 @@ class CourseServiceTest {
         assertTrue(courseService.canCreateCourses(2L));
         assertFalse(courseService.canCreateCourses(3L));
     }
+
+    @Test
+    void deleteCourse_deactivates_and_suspends_enrollments_in_bulk() {
+        User instructor = makeUser(10L, User.Role.INSTRUCTOR);
+        Course c = new Course(); c.setId(8L); c.setInstructor(instructor); c.setIsActive(true);
+
+        when(courseRepository.findById(8L)).thenReturn(Optional.of(c));
+        when(userService.getAuthenticatedUser()).thenReturn(instructor);
+
+        courseService.deleteCourse(8L);
+
+        assertFalse(c.getIsActive());
+        verify(courseRepository).save(c);
+        verify(enrollmentSuspensionService).suspendCourseEnrollments(8L);
+        verify(enrollmentRepository, never()).findByCourse(any(Course.class));
+        verify(enrollmentRepository, never()).save(any());
+    }
 }
\ No newline at end of file
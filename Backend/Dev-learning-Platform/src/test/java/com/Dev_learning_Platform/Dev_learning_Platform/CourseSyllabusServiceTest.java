@@ -0,0 +1,200 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.LessonDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.SyllabusVideoDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseStateChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseVideoChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseSyllabusService;
+
+/**
+ * Test unitario del temario cacheado: lecciones vecinas, páginas sin SQL una vez en caché, invalidación por
+ * eventos, cargas que se cruzan con una invalidación y permisos cacheados por usuario y curso.
+ */
+@ExtendWith(MockitoExtension.class)
+class CourseSyllabusServiceTest {
+
+    private static final Long COURSE_ID = 5L;
+    private static final Long OTHER_COURSE_ID = 6L;
+    private static final Long STUDENT_ID = 20L;
+    private static final Long INSTRUCTOR_ID = 30L;
+    private static final String STUDENT = "alumno@example.com";
+    private static final String OTHER_STUDENT = "otro@example.com";
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private CourseVideoRepository courseVideoRepository;
+
+    @InjectMocks
+    private CourseSyllabusService courseSyllabusService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(courseSyllabusService, "cacheTtlMs", 60_000L);
+        ReflectionTestUtils.setField(courseSyllabusService, "accessTtlMs", 60_000L);
+        // Los tests de permisos no llegan a cargar el temario
+        lenient().when(courseRepository.findContentVersionById(COURSE_ID)).thenReturn(Optional.of(7L));
+        lenient().when(courseVideoRepository.findSyllabusByCourseId(COURSE_ID)).thenReturn(List.of(
+                video(11L, 1), video(12L, 2), video(13L, 3)));
+    }
+
+    private static SyllabusVideoDto video(Long id, int orderIndex) {
+        return new SyllabusVideoDto(id, "Lección " + orderIndex, null, "https://youtu.be/aaaaaaaaaaa",
+                "aaaaaaaaaaa", orderIndex, 600, "/api/thumbnails/aaaaaaaaaaa", true);
+    }
+
+    @Test
+    void getLesson_returnsNeighbours_fromCachedSyllabus() {
+        LessonDto middle = courseSyllabusService.getLesson(COURSE_ID, 12L, null);
+        LessonDto first = courseSyllabusService.getLesson(COURSE_ID, 11L, null);
+        LessonDto last = courseSyllabusService.getLesson(COURSE_ID, 13L, null);
+
+        assertEquals(2, middle.getPosition());
+        assertEquals(3, middle.getTotalLessons());
+        assertEquals(11L, middle.getPrevious().getId());
+        assertEquals(13L, middle.getNext().getId());
+        assertEquals(7L, middle.getContentVersion());
+        assertNull(first.getPrevious());
+        assertNull(last.getNext());
+        verify(courseVideoRepository, times(1)).findSyllabusByCourseId(COURSE_ID);
+    }
+
+    @Test
+    void getLesson_rejectsVideoOutsideTheSyllabus() {
+        assertThrows(IllegalArgumentException.class, () -> courseSyllabusService.getLesson(COURSE_ID, 99L, null));
+    }
+
+    private void access(String email, Long courseId, User.Role role, long enrollments) {
+        when(courseRepository.findSyllabusAccess(email, courseId)).thenReturn(List.<Object[]>of(
+                new Object[] {STUDENT_ID, role, INSTRUCTOR_ID, enrollments}));
+    }
+
+    @Test
+    void getLesson_warmPage_runsNoSql() {
+        access(STUDENT, COURSE_ID, User.Role.STUDENT, 1L);
+        courseSyllabusService.getLesson(COURSE_ID, 12L, STUDENT);
+        clearInvocations(courseRepository, courseVideoRepository);
+
+        LessonDto lesson = courseSyllabusService.getLesson(COURSE_ID, 13L, STUDENT);
+
+        assertEquals(3, lesson.getPosition());
+        verifyNoInteractions(courseRepository, courseVideoRepository);
+    }
+
+    @Test
+    void courseVideoChanged_evictsSyllabusOnly() {
+        access(STUDENT, COURSE_ID, User.Role.STUDENT, 1L);
+        courseSyllabusService.getLesson(COURSE_ID, 12L, STUDENT);
+
+        courseSyllabusService.onCourseVideoChanged(new CourseVideoChangedEvent(COURSE_ID, 1, 600L));
+        courseSyllabusService.getLesson(COURSE_ID, 12L, STUDENT);
+
+        verify(courseVideoRepository, times(2)).findSyllabusByCourseId(COURSE_ID);
+        verify(courseRepository, times(1)).findSyllabusAccess(STUDENT, COURSE_ID);
+    }
+
+    @Test
+    void courseStateChanged_evictsSyllabusAndAccess() {
+        access(STUDENT, COURSE_ID, User.Role.STUDENT, 1L);
+        courseSyllabusService.getLesson(COURSE_ID, 12L, STUDENT);
+
+        courseSyllabusService.onCourseStateChanged(new CourseStateChangedEvent(COURSE_ID,
+                new CourseStateChangedEvent.State(true, true, INSTRUCTOR_ID),
+                new CourseStateChangedEvent.State(true, false, INSTRUCTOR_ID)));
+        courseSyllabusService.getLesson(COURSE_ID, 12L, STUDENT);
+
+        verify(courseVideoRepository, times(2)).findSyllabusByCourseId(COURSE_ID);
+        verify(courseRepository, times(2)).findSyllabusAccess(STUDENT, COURSE_ID);
+    }
+
+    @Test
+    void enrollmentsCreated_evictsCachedDenial() {
+        access(STUDENT, COURSE_ID, User.Role.STUDENT, 0L);
+        assertThrows(SecurityException.class, () -> courseSyllabusService.getLesson(COURSE_ID, 12L, STUDENT));
+        assertThrows(SecurityException.class, () -> courseSyllabusService.getLesson(COURSE_ID, 12L, STUDENT));
+        verify(courseRepository, times(1)).findSyllabusAccess(STUDENT, COURSE_ID);
+
+        access(STUDENT, COURSE_ID, User.Role.STUDENT, 1L);
+        courseSyllabusService.onEnrollmentsCreated(new EnrollmentsCreatedEvent(COURSE_ID, 1));
+
+        assertEquals(12L, courseSyllabusService.getLesson(COURSE_ID, 12L, STUDENT).getVideo().getId());
+        verify(courseVideoRepository, times(1)).findSyllabusByCourseId(COURSE_ID);
+    }
+
+    @Test
+    void accessIsCachedPerEmailAndCourse() {
+        access(STUDENT, COURSE_ID, User.Role.STUDENT, 1L);
+        access(OTHER_STUDENT, COURSE_ID, User.Role.STUDENT, 0L);
+        access(STUDENT, OTHER_COURSE_ID, User.Role.STUDENT, 0L);
+
+        assertTrue(courseSyllabusService.canView(STUDENT, COURSE_ID));
+        assertFalse(courseSyllabusService.canView(OTHER_STUDENT, COURSE_ID));
+        assertFalse(courseSyllabusService.canView(STUDENT, OTHER_COURSE_ID));
+        assertTrue(courseSyllabusService.canView(STUDENT, COURSE_ID));
+        assertFalse(courseSyllabusService.canView(OTHER_STUDENT, COURSE_ID));
+
+        verify(courseRepository, times(1)).findSyllabusAccess(STUDENT, COURSE_ID);
+        verify(courseRepository, times(1)).findSyllabusAccess(OTHER_STUDENT, COURSE_ID);
+        verify(courseRepository, times(1)).findSyllabusAccess(STUDENT, OTHER_COURSE_ID);
+
+        // Una inscripción en otro curso no invalida los permisos de este
+        courseSyllabusService.onEnrollmentsCreated(new EnrollmentsCreatedEvent(OTHER_COURSE_ID, 1));
+        courseSyllabusService.canView(STUDENT, COURSE_ID);
+        verify(courseRepository, times(1)).findSyllabusAccess(STUDENT, COURSE_ID);
+    }
+
+    @Test
+    void syllabusLoadOverlappingInvalidation_isReturnedButNotCached() {
+        when(courseVideoRepository.findSyllabusByCourseId(COURSE_ID)).thenAnswer(invocation -> {
+            // El cambio de videos se confirma mientras esta carga lee la versión anterior
+            courseSyllabusService.onCourseVideoChanged(new CourseVideoChangedEvent(COURSE_ID, 1, 600L));
+            return List.of(video(11L, 1), video(12L, 2));
+        }).thenReturn(List.of(video(11L, 1), video(12L, 2), video(13L, 3)));
+
+        assertEquals(2, courseSyllabusService.getSyllabus(COURSE_ID, null).getVideos().size());
+        assertEquals(3, courseSyllabusService.getSyllabus(COURSE_ID, null).getVideos().size());
+        assertEquals(3, courseSyllabusService.getSyllabus(COURSE_ID, null).getVideos().size());
+        verify(courseVideoRepository, times(2)).findSyllabusByCourseId(COURSE_ID);
+    }
+
+    @Test
+    void accessResolutionOverlappingEnrollment_isReturnedButNotCached() {
+        when(courseRepository.findSyllabusAccess(STUDENT, COURSE_ID)).thenAnswer(invocation -> {
+            // La inscripción se confirma mientras se resuelve el permiso sin ella
+            courseSyllabusService.onEnrollmentsCreated(new EnrollmentsCreatedEvent(COURSE_ID, 1));
+            return List.<Object[]>of(new Object[] {STUDENT_ID, User.Role.STUDENT, INSTRUCTOR_ID, 0L});
+        }).thenReturn(List.<Object[]>of(new Object[] {STUDENT_ID, User.Role.STUDENT, INSTRUCTOR_ID, 1L}));
+
+        assertFalse(courseSyllabusService.canView(STUDENT, COURSE_ID));
+        assertTrue(courseSyllabusService.canView(STUDENT, COURSE_ID));
+        assertTrue(courseSyllabusService.canView(STUDENT, COURSE_ID));
+        verify(courseRepository, times(2)).findSyllabusAccess(STUDENT, COURSE_ID);
+    }
+}
@@ -0,0 +1,209 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.CourseVideoDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.VideoImportItemDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.VideoImportResultDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseVideoService;
+
+/**
+ * Test unitario de las escrituras de videos (reordenación, importación, bajas y compactación) usando solo Mockito.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CourseVideoServiceTest {
+
+    private static final Long COURSE_ID = 5L;
+    private static final Long INSTRUCTOR_ID = 10L;
+
+    @Mock
+    private CourseVideoRepository courseVideoRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CourseService courseService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CourseVideoService courseVideoService;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = new User();
+        instructor.setId(INSTRUCTOR_ID);
+        Course course = new Course();
+        course.setId(COURSE_ID);
+        course.setInstructor(instructor);
+        when(courseService.findById(COURSE_ID)).thenReturn(course);
+        // Orden actual: 1 -> 1, 2 -> 2, 3 -> 3
+        when(courseVideoRepository.findActiveOrderByCourseId(COURSE_ID)).thenReturn(List.of(
+                new Object[] {1L, 1}, new Object[] {2L, 2}, new Object[] {3L, 3}));
+        when(courseVideoRepository.findMaxActiveOrderIndex(COURSE_ID)).thenReturn(3);
+        when(courseVideoRepository.findActiveYoutubeVideoIds(COURSE_ID)).thenReturn(List.of("existente01"));
+        ReflectionTestUtils.setField(courseVideoService, "maxImportItems", 500);
+    }
+
+    private VideoImportItemDto item(String title, String url, Integer duration) {
+        VideoImportItemDto item = new VideoImportItemDto();
+        item.setTitle(title);
+        item.setYoutubeUrl(url);
+        item.setDurationSeconds(duration);
+        return item;
+    }
+
+    @Test
+    void reorderVideos_writesOnlyMovedVideos_inOneBatch() {
+        courseVideoService.reorderVideos(COURSE_ID, List.of(2L, 1L, 3L), INSTRUCTOR_ID);
+
+        ArgumentCaptor<SqlParameterSource[]> batch = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(2, batch.getValue().length);
+        assertEquals(2L, batch.getValue()[0].getValue("id"));
+        assertEquals(1, batch.getValue()[0].getValue("orderIndex"));
+        verify(courseRepository, times(1)).incrementContentVersion(COURSE_ID);
+        verify(courseVideoRepository, never()).save(any());
+    }
+
+    @Test
+    void reorderVideos_rejectsListThatIsNotAPermutation() {
+        assertThrows(IllegalArgumentException.class,
+                () -> courseVideoService.reorderVideos(COURSE_ID, List.of(1L, 2L, 99L), INSTRUCTOR_ID));
+        assertThrows(IllegalArgumentException.class,
+                () -> courseVideoService.reorderVideos(COURSE_ID, List.of(1L, 1L, 2L), INSTRUCTOR_ID));
+        assertThrows(IllegalArgumentException.class,
+                () -> courseVideoService.reorderVideos(COURSE_ID, List.of(1L, 2L), INSTRUCTOR_ID));
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        verify(courseRepository, never()).incrementContentVersion(any());
+    }
+
+    @Test
+    void reorderVideos_sameOrder_doesNotBumpVersion() {
+        courseVideoService.reorderVideos(COURSE_ID, List.of(1L, 2L, 3L), INSTRUCTOR_ID);
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        verify(courseRepository, never()).incrementContentVersion(any());
+    }
+
+    @Test
+    void importVideos_appendsManifestInOneBatch_withContiguousOrder() {
+        VideoImportResultDto result = courseVideoService.importVideos(COURSE_ID, List.of(
+                item("Intro", "https://www.youtube.com/watch?v=aaaaaaaaaaa", 300),
+                item("Setup", "https://youtu.be/bbbbbbbbbbb", 600)), INSTRUCTOR_ID);
+
+        assertEquals(2, result.getImported());
+        assertEquals(4, result.getFirstOrderIndex());
+        assertEquals(5, result.getLastOrderIndex());
+        ArgumentCaptor<SqlParameterSource[]> batch = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals("bbbbbbbbbbb", batch.getValue()[1].getValue("youtubeVideoId"));
+        assertEquals(5, batch.getValue()[1].getValue("orderIndex"));
+        verify(courseRepository, times(1)).applyVideoChange(COURSE_ID, 2, 900L, 600);
+    }
+
+    @Test
+    void importVideos_withInvalidItems_importsNothing_andReportsEachError() {
+        VideoImportResultDto result = courseVideoService.importVideos(COURSE_ID, List.of(
+                item("Intro", "https://www.youtube.com/watch?v=aaaaaaaaaaa", 300),
+                item("", "https://youtu.be/bbbbbbbbbbb", 300),
+                item("Repetido", "https://youtu.be/existente01", 300),
+                item("Sin URL válida", "https://example.com/video", 300),
+                item("Demasiado largo", "https://youtu.be/ccccccccccc", 4000)), INSTRUCTOR_ID);
+
+        assertEquals(0, result.getImported());
+        assertEquals(List.of(1, 2, 3, 4), result.getErrors().stream().map(e -> e.getIndex()).toList());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        verify(courseRepository, never()).applyVideoChange(any(), anyInt(), anyLong(), anyInt());
+    }
+
+    @Test
+    void compactOrder_closesGaps_keepingOrder() {
+        when(courseVideoRepository.findActiveOrderByCourseId(COURSE_ID)).thenReturn(List.of(
+                new Object[] {3L, 7}, new Object[] {1L, 1}, new Object[] {2L, 4}));
+
+        assertEquals(2, courseVideoService.compactOrder(COURSE_ID));
+
+        ArgumentCaptor<SqlParameterSource[]> batch = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(2L, batch.getValue()[0].getValue("id"));
+        assertEquals(2, batch.getValue()[0].getValue("orderIndex"));
+        assertEquals(3L, batch.getValue()[1].getValue("id"));
+        assertEquals(3, batch.getValue()[1].getValue("orderIndex"));
+        verify(courseRepository, times(1)).incrementContentVersion(COURSE_ID);
+    }
+
+    @Test
+    void deleteVideo_subtractsAggregates_andRecomputesLongest() {
+        CourseVideo video = new CourseVideo();
+        video.setId(7L);
+        video.setDurationSeconds(600);
+        video.setCourse(courseService.findById(COURSE_ID));
+        when(courseVideoRepository.findById(7L)).thenReturn(Optional.of(video));
+
+        courseVideoService.deleteVideo(7L, INSTRUCTOR_ID);
+        courseVideoService.deleteVideo(7L, INSTRUCTOR_ID);
+
+        verify(courseRepository, times(1)).applyVideoChange(COURSE_ID, -1, -600L, 0);
+        verify(courseRepository, times(1)).recomputeLongestLesson(COURSE_ID);
+    }
+
+    @Test
+    void updateVideo_withStaleVersion_isRejected_withoutWriting() {
+        CourseVideo video = new CourseVideo();
+        video.setId(7L);
+        video.setVersion(3L);
+        video.setCourse(courseService.findById(COURSE_ID));
+        when(courseVideoRepository.findById(7L)).thenReturn(Optional.of(video));
+        when(courseVideoRepository.saveAndFlush(video)).thenReturn(video);
+        CourseVideoDto changes = new CourseVideoDto();
+        changes.setTitle("Nuevo título");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> courseVideoService.updateVideo(7L, changes, INSTRUCTOR_ID, 2L));
+        verify(courseVideoRepository, never()).saveAndFlush(any());
+
+        courseVideoService.updateVideo(7L, changes, INSTRUCTOR_ID, 3L);
+        assertEquals("Nuevo título", video.getTitle());
+        verify(courseVideoRepository, times(1)).saveAndFlush(video);
+    }
+}
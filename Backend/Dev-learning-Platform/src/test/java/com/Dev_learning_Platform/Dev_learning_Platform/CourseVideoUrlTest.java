@@ -0,0 +1,77 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
+
+/**
+ * Formatos de URL de YouTube aceptados y rechazados al extraer el id del video.
+ */
+class CourseVideoUrlTest {
+
+    private static final String ID_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789_-";
+
+    // %s se sustituye por el id; todas deben devolverlo intacto
+    private static final List<String> TEMPLATES = List.of(
+            "https://www.youtube.com/watch?v=%s",
+            "http://youtube.com/watch?v=%s&t=42s",
+            "https://m.youtube.com/watch?feature=share&v=%s",
+            "https://music.youtube.com/watch?list=PL123&index=2&v=%s#t=10",
+            "youtube.com/watch/?v=%s",
+            "//www.youtube.com/watch?v=%s",
+            "https://youtu.be/%s",
+            "https://youtu.be/%s?si=abc&t=5",
+            "https://www.youtube.com/embed/%s?autoplay=1",
+            "https://www.youtube-nocookie.com/embed/%s",
+            "https://www.youtube.com/shorts/%s",
+            "https://youtube.com/shorts/%s?feature=share",
+            "https://www.youtube.com/live/%s",
+            "https://www.youtube.com/v/%s",
+            "https://www.youtube.com/e/%s",
+            "  HTTPS://WWW.YOUTUBE.COM/watch?v=%s  ");
+
+    @Test
+    void extractVideoId_randomIdsAcrossAllFormats() {
+        Random random = new Random(44);
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[11];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = ID_ALPHABET.charAt(random.nextInt(ID_ALPHABET.length()));
+            }
+            String id = new String(chars);
+            String template = TEMPLATES.get(random.nextInt(TEMPLATES.size()));
+            String url = String.format(template, id);
+            assertEquals(id, CourseVideo.extractVideoId(url), url);
+        }
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {
+            "https://example.com/watch?v=dQw4w9WgXcQ",
+            "https://notyoutube.com/watch?v=dQw4w9WgXcQ",
+            "https://youtube.com.evil.io/watch?v=dQw4w9WgXcQ",
+            "https://www.youtube.com/watch?list=PL123",
+            "https://www.youtube.com/watch?vv=dQw4w9WgXcQ",
+            "https://www.youtube.com/watch#v=dQw4w9WgXcQ",
+            "https://www.youtube.com/watch?t=1#&v=dQw4w9WgXcQ",
+            "https://www.youtube.com/watch?v=dQw4w9WgXc",
+            "https://www.youtube.com/watch?v=dQw4w9WgXcQQ",
+            "https://www.youtube.com/watch?v=dQw4w9Wg!cQ",
+            "https://youtu.be/",
+            "https://youtu.be",
+            "https://www.youtube.com/channel/UCabcdefghijk",
+            "https://www.youtube.com/shorts/",
+            "dQw4w9WgXcQ" })
+    void extractVideoId_rejectsInvalidUrls(String url) {
+        assertNull(CourseVideo.extractVideoId(url));
+    }
+}
@@ -0,0 +1,218 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentLifecycleEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent.EventType;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.EnrollmentOutboxEvent.Status;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentOutboxEventRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.EnrollmentOutboxDispatcher;
+
+/**
+ * Despacho del outbox de inscripciones contra H2 en modo MySQL: selección de pendientes, orden por
+ * inscripción, reintentos, reclamo de filas y reentrega tras un timeout.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EnrollmentOutboxDispatcherTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EnrollmentOutboxEventRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Entregas recibidas por los listeners, en orden de llegada
+    private final List<EnrollmentLifecycleEvent> delivered = new CopyOnWriteArrayList<>();
+    private final List<EnrollmentOutboxDispatcher> dispatchers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        dispatchers.forEach(EnrollmentOutboxDispatcher::shutdown);
+    }
+
+    private EnrollmentOutboxDispatcher dispatcher(int batchSize, long handlerTimeoutMs,
+            Consumer<EnrollmentLifecycleEvent> listener) {
+        EnrollmentOutboxDispatcher dispatcher = new EnrollmentOutboxDispatcher(outboxRepository, event -> {
+            EnrollmentLifecycleEvent lifecycle = (EnrollmentLifecycleEvent) event;
+            listener.accept(lifecycle);
+            delivered.add(lifecycle);
+        }, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(dispatcher, "batchSize", batchSize);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "handlerTimeoutMs", handlerTimeoutMs);
+        ReflectionTestUtils.setField(dispatcher, "claimTtlMs", handlerTimeoutMs * 3);
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+
+    private EnrollmentOutboxEvent persist(Long enrollmentId, EventType type, Status status) {
+        EnrollmentOutboxEvent event = new EnrollmentOutboxEvent();
+        event.setEventType(type);
+        event.setEnrollmentId(enrollmentId);
+        event.setStudentId(100L + enrollmentId);
+        event.setCourseId(7L);
+        event.setProgressPercentage(type == EventType.PROGRESS_MILESTONE ? 50 : 100);
+        event.setPreviousStatus(EnrollmentStatus.ACTIVE);
+        event.setStatus(status);
+        return entityManager.persistAndFlush(event);
+    }
+
+    // Las pasadas se unen a la transacción del test: se vuelca antes de releer
+    private EnrollmentOutboxEvent reload(EnrollmentOutboxEvent event) {
+        entityManager.flush();
+        entityManager.clear();
+        return outboxRepository.findById(event.getId()).orElseThrow();
+    }
+
+    private List<Long> deliveredIds() {
+        return delivered.stream().map(EnrollmentLifecycleEvent::getOutboxId).toList();
+    }
+
+    @Test
+    @DisplayName("Solo se despachan los pendientes, por lotes y en orden de id, y no se vuelven a entregar")
+    void dispatchPending_claimsPendingInBatches_andMarksDispatched() {
+        persist(1L, EventType.COMPLETED, Status.DISPATCHED);
+        EnrollmentOutboxEvent first = persist(1L, EventType.PROGRESS_MILESTONE, Status.PENDING);
+        EnrollmentOutboxEvent second = persist(1L, EventType.COMPLETED, Status.PENDING);
+        EnrollmentOutboxEvent third = persist(2L, EventType.DROPPED, Status.PENDING);
+        EnrollmentOutboxDispatcher dispatcher = dispatcher(2, 5_000L, event -> { });
+
+        dispatcher.dispatchPending();
+        assertEquals(List.of(first.getId(), second.getId()), deliveredIds());
+        assertEquals(Status.DISPATCHED, reload(first).getStatus());
+        assertNotNull(reload(second).getProcessedAt());
+        assertEquals(Status.PENDING, reload(third).getStatus());
+
+        dispatcher.dispatchPending();
+        dispatcher.dispatchPending();
+        assertEquals(List.of(first.getId(), second.getId(), third.getId()), deliveredIds());
+        assertEquals(0, outboxRepository.countByStatus(Status.PENDING));
+    }
+
+    @Test
+    @DisplayName("Un fallo deja el evento y los siguientes de su inscripción para la próxima pasada")
+    void dispatchPending_failure_retriesInOrder_withoutBlockingOtherEnrollments() {
+        EnrollmentOutboxEvent failing = persist(1L, EventType.PROGRESS_MILESTONE, Status.PENDING);
+        EnrollmentOutboxEvent blocked = persist(1L, EventType.COMPLETED, Status.PENDING);
+        EnrollmentOutboxEvent other = persist(2L, EventType.COMPLETED, Status.PENDING);
+        AtomicInteger failures = new AtomicInteger(1);
+        EnrollmentOutboxDispatcher dispatcher = dispatcher(10, 5_000L, event -> {
+            if (event.getOutboxId().equals(failing.getId()) && failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("SMTP no disponible");
+            }
+        });
+
+        dispatcher.dispatchPending();
+        assertEquals(List.of(other.getId()), deliveredIds());
+        EnrollmentOutboxEvent afterFailure = reload(failing);
+        assertEquals(Status.PENDING, afterFailure.getStatus());
+        assertEquals(1, afterFailure.getAttempts());
+        assertEquals("SMTP no disponible", afterFailure.getLastError());
+        assertEquals(Status.PENDING, reload(blocked).getStatus());
+
+        dispatcher.dispatchPending();
+        assertEquals(List.of(other.getId(), failing.getId(), blocked.getId()), deliveredIds());
+        assertEquals(0, outboxRepository.countByStatus(Status.PENDING));
+    }
+
+    @Test
+    @DisplayName("Tras agotar los intentos el evento queda FAILED y deja de reintentarse")
+    void dispatchPending_exhaustedAttempts_marksFailed() {
+        EnrollmentOutboxEvent event = persist(1L, EventType.COMPLETED, Status.PENDING);
+        AtomicInteger calls = new AtomicInteger();
+        EnrollmentOutboxDispatcher dispatcher = dispatcher(10, 5_000L, lifecycle -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("listener roto");
+        });
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatchPending();
+        }
+
+        EnrollmentOutboxEvent failed = reload(event);
+        assertEquals(Status.FAILED, failed.getStatus());
+        assertEquals(3, failed.getAttempts());
+        assertNotNull(failed.getProcessedAt());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("Un listener que supera el timeout y no atiende la interrupción no se solapa con la reentrega")
+    void dispatchPending_handlerTimeout_redeliversOnlyAfterTheStuckDeliveryEnds() throws InterruptedException {
+        EnrollmentOutboxEvent stuck = persist(1L, EventType.PROGRESS_MILESTONE, Status.PENDING);
+        EnrollmentOutboxEvent next = persist(1L, EventType.COMPLETED, Status.PENDING);
+        EnrollmentOutboxEvent other = persist(2L, EventType.COMPLETED, Status.PENDING);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        Consumer<EnrollmentLifecycleEvent> listener = lifecycle -> {
+            if (attempts.computeIfAbsent(lifecycle.getOutboxId(), id -> new AtomicInteger()).incrementAndGet() == 1
+                    && lifecycle.getOutboxId().equals(stuck.getId())) {
+                awaitIgnoringInterrupts(release);
+            }
+        };
+        EnrollmentOutboxDispatcher dispatcher = dispatcher(10, 200L, listener);
+        EnrollmentOutboxDispatcher otherInstance = dispatcher(10, 200L, listener);
+
+        dispatcher.dispatchPending();
+        assertEquals(List.of(other.getId()), deliveredIds());
+        assertEquals(Status.PENDING, reload(stuck).getStatus());
+
+        // Los eventos de la inscripción siguen reclamados: ni esta instancia ni otra los vuelven a tomar
+        dispatcher.dispatchPending();
+        otherInstance.dispatchPending();
+        assertEquals(1, attempts.get(stuck.getId()).get());
+        assertNull(attempts.get(next.getId()));
+
+        release.countDown();
+        for (int i = 0; i < 100 && attempts.get(next.getId()) == null; i++) {
+            Thread.sleep(50L);
+            dispatcher.dispatchPending();
+        }
+
+        assertEquals(2, attempts.get(stuck.getId()).get());
+        List<Long> ids = deliveredIds();
+        assertEquals(List.of(stuck.getId(), next.getId()), ids.subList(ids.size() - 2, ids.size()));
+        assertEquals(Status.DISPATCHED, reload(stuck).getStatus());
+        assertEquals(Status.DISPATCHED, reload(next).getStatus());
+    }
+
+    private static void awaitIgnoringInterrupts(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // Como un listener que no comprueba la interrupción
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.EnrollmentSuspensionProgressDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.EnrollmentSuspensionJob;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.EnrollmentSuspensionService;
+
+/**
+ * Suspensiones resueltas con un único UPDATE: el progreso solo se publica al confirmar y no pisa una
+ * suspensión asíncrona en curso del mismo curso.
+ */
+@ExtendWith(MockitoExtension.class)
+class EnrollmentSuspensionServiceTest {
+
+    private static final Long COURSE_ID = 9L;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private EnrollmentSuspensionJob suspensionJob;
+    private EnrollmentSuspensionService suspensionService;
+
+    @BeforeEach
+    void setUp() {
+        suspensionJob = new EnrollmentSuspensionJob(enrollmentRepository, transactionTemplate, eventPublisher);
+        ReflectionTestUtils.setField(suspensionJob, "chunkSize", 100);
+        suspensionService = new EnrollmentSuspensionService(enrollmentRepository, suspensionJob, eventPublisher);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    @Test
+    void smallCourse_recordsProgressOnlyAfterCommit() {
+        when(enrollmentRepository.countByCourseIdAndStatusNot(COURSE_ID, EnrollmentStatus.SUSPENDED)).thenReturn(3L);
+        when(enrollmentRepository.updateStatusByCourseId(eq(COURSE_ID), eq(EnrollmentStatus.SUSPENDED), any()))
+                .thenReturn(3);
+
+        EnrollmentSuspensionProgressDto result = suspensionService.suspendCourseEnrollments(COURSE_ID);
+
+        assertEquals(EnrollmentSuspensionProgressDto.Status.COMPLETED, result.getStatus());
+        assertEquals(3L, result.getProcessedEnrollments());
+        assertTrue(suspensionService.getSuspensionProgress(COURSE_ID).isEmpty());
+
+        commit();
+        assertEquals(EnrollmentSuspensionProgressDto.Status.COMPLETED,
+                suspensionService.getSuspensionProgress(COURSE_ID).orElseThrow().getStatus());
+    }
+
+    @Test
+    void recordCompleted_keepsRunningSuspension() {
+        assertTrue(suspensionJob.register(COURSE_ID, 5_000L));
+
+        suspensionJob.recordCompleted(COURSE_ID, 2L);
+
+        EnrollmentSuspensionProgressDto progress = suspensionJob.getProgress(COURSE_ID).orElseThrow();
+        assertEquals(EnrollmentSuspensionProgressDto.Status.RUNNING, progress.getStatus());
+        assertEquals(5_000L, progress.getTotalEnrollments());
+    }
+}
@@ -0,0 +1,154 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.instructor.InstructorAnalyticsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseStateChangedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.events.EnrollmentsCreatedEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.PaymentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.InstructorAnalyticsService;
+
+/**
+ * Test unitario de la caché de analíticas del instructor: aciertos, invalidación y copias defensivas.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InstructorAnalyticsServiceTest {
+
+    private static final Long INSTRUCTOR_ID = 10L;
+    private static final Long NEW_INSTRUCTOR_ID = 12L;
+    private static final Long COURSE_ID = 5L;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @InjectMocks
+    private InstructorAnalyticsService analyticsService;
+
+    private User instructor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(analyticsService, "cacheTtlMs", 300_000L);
+        ReflectionTestUtils.setField(analyticsService, "trendDays", 7);
+        instructor = new User();
+        instructor.setId(INSTRUCTOR_ID);
+        instructor.setRole(User.Role.INSTRUCTOR);
+
+        List<Object[]> summaries = new ArrayList<>();
+        summaries.add(new Object[] {COURSE_ID, "Curso de Spring", true});
+        when(courseRepository.findSummariesByInstructorId(INSTRUCTOR_ID)).thenReturn(summaries);
+        List<Object[]> enrollments = new ArrayList<>();
+        enrollments.add(new Object[] {COURSE_ID, 4L, 3L, 1L, 50.0});
+        when(enrollmentRepository.aggregateByCourseForInstructor(INSTRUCTOR_ID)).thenReturn(enrollments);
+    }
+
+    @Test
+    @DisplayName("La segunda consulta sale de caché y modificar la respuesta no altera lo cacheado")
+    void getAnalytics_cachedResult_isCopied() {
+        InstructorAnalyticsDto first = analyticsService.getAnalytics(INSTRUCTOR_ID, instructor);
+        first.setTotalEnrollments(999L);
+        first.getCourses().get(0).setTitle("modificado");
+
+        InstructorAnalyticsDto second = analyticsService.getAnalytics(INSTRUCTOR_ID, instructor);
+
+        assertEquals(4L, second.getTotalEnrollments());
+        assertEquals("Curso de Spring", second.getCourses().get(0).getTitle());
+        assertEquals(25.0, second.getCompletionRate());
+        verify(courseRepository, times(1)).findSummariesByInstructorId(INSTRUCTOR_ID);
+    }
+
+    @Test
+    @DisplayName("Un evento del curso descarta la entrada y la siguiente consulta recalcula")
+    void getAnalytics_afterCourseEvent_recomputes() {
+        analyticsService.getAnalytics(INSTRUCTOR_ID, instructor);
+        analyticsService.onEnrollmentsCreated(new EnrollmentsCreatedEvent(COURSE_ID, 1));
+        analyticsService.getAnalytics(INSTRUCTOR_ID, instructor);
+
+        verify(courseRepository, times(2)).findSummariesByInstructorId(INSTRUCTOR_ID);
+    }
+
+    @Test
+    @DisplayName("Una invalidación durante el cálculo impide guardar el resultado ya obsoleto")
+    void getAnalytics_evictedWhileComputing_isNotCached() {
+        when(paymentRepository.sumByCourseForInstructor(eq(INSTRUCTOR_ID), any())).thenAnswer(invocation -> {
+            // Llega una inscripción mientras se calculan las métricas
+            analyticsService.onEnrollmentsCreated(new EnrollmentsCreatedEvent(COURSE_ID, 1));
+            return List.of();
+        });
+
+        analyticsService.getAnalytics(INSTRUCTOR_ID, instructor);
+        analyticsService.getAnalytics(INSTRUCTOR_ID, instructor);
+
+        verify(courseRepository, times(2)).findSummariesByInstructorId(INSTRUCTOR_ID);
+    }
+
+    @Test
+    @DisplayName("Reasignar el curso descarta la caché del instructor anterior y la del nuevo")
+    void getAnalytics_afterInstructorChange_recomputesBothInstructors() {
+        User newInstructor = new User();
+        newInstructor.setId(NEW_INSTRUCTOR_ID);
+        newInstructor.setRole(User.Role.INSTRUCTOR);
+        analyticsService.getAnalytics(INSTRUCTOR_ID, instructor);
+        analyticsService.getAnalytics(NEW_INSTRUCTOR_ID, newInstructor);
+
+        analyticsService.onCourseStateChanged(new CourseStateChangedEvent(COURSE_ID,
+                new CourseStateChangedEvent.State(true, true, INSTRUCTOR_ID),
+                new CourseStateChangedEvent.State(true, true, NEW_INSTRUCTOR_ID)));
+        List<Object[]> summaries = new ArrayList<>();
+        summaries.add(new Object[] {COURSE_ID, "Curso de Spring", true});
+        when(courseRepository.findSummariesByInstructorId(INSTRUCTOR_ID)).thenReturn(List.of());
+        when(courseRepository.findSummariesByInstructorId(NEW_INSTRUCTOR_ID)).thenReturn(summaries);
+        analyticsService.getAnalytics(INSTRUCTOR_ID, instructor);
+        analyticsService.getAnalytics(NEW_INSTRUCTOR_ID, newInstructor);
+
+        verify(courseRepository, times(2)).findSummariesByInstructorId(INSTRUCTOR_ID);
+        verify(courseRepository, times(2)).findSummariesByInstructorId(NEW_INSTRUCTOR_ID);
+
+        // Los eventos siguientes del curso ya invalidan al nuevo instructor
+        analyticsService.onEnrollmentsCreated(new EnrollmentsCreatedEvent(COURSE_ID, 1));
+        analyticsService.getAnalytics(NEW_INSTRUCTOR_ID, newInstructor);
+        verify(courseRepository, times(3)).findSummariesByInstructorId(NEW_INSTRUCTOR_ID);
+    }
+
+    @Test
+    @DisplayName("Otro instructor no puede ver las analíticas")
+    void getAnalytics_otherInstructor_isRejected() {
+        User other = new User();
+        other.setId(11L);
+        other.setRole(User.Role.INSTRUCTOR);
+
+        assertThrows(SecurityException.class, () -> analyticsService.getAnalytics(INSTRUCTOR_ID, other));
+        verify(courseRepository, never()).findSummariesByInstructorId(anyLong());
+    }
+}
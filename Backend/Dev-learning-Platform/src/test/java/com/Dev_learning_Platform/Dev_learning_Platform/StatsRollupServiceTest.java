@@ -0,0 +1,116 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistCourse;
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistUser;
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.admin.RevenueStatsDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Payment;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.EnrollmentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.PaymentRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.StatsRollupRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.UserRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.AdminStatsCounters;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.AdminStatsService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CategoryStatsService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.StatsRollupService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.activity.ActivitySketchService;
+
+/**
+ * Backfill de rollups e ingresos históricos contra H2 en modo MySQL.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StatsRollupServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StatsRollupRepository rollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StatsRollupService rollupService;
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = persistUser(entityManager, "instructor", User.Role.INSTRUCTOR);
+        student = persistUser(entityManager, "ana", User.Role.STUDENT);
+
+        course = persistCourse(entityManager, instructor);
+
+        rollupService = new StatsRollupService(rollupRepository, userRepository, enrollmentRepository,
+                paymentRepository, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(rollupService, "backfillDays", 30);
+    }
+
+    private void persistPayment(String amount, LocalDateTime createdAt) {
+        Payment payment = new Payment();
+        payment.setUser(student);
+        payment.setCourse(course);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setStatus(Payment.Status.COMPLETED);
+        entityManager.persistAndFlush(payment);
+        // createdAt lo fija @PrePersist: se retrocede con SQL
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE payments SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", payment.getId())
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Los ingresos históricos incluyen pagos anteriores a la ventana de backfill")
+    void revenueStats_includePaymentsOlderThanBackfillWindow() {
+        LocalDateTime twoYearsAgo = LocalDateTime.now().minusYears(2).withDayOfMonth(20);
+        persistPayment("40.00", twoYearsAgo);
+        persistPayment("10.00", LocalDateTime.now());
+
+        rollupService.backfillIfEmpty();
+
+        AdminStatsService adminStats = new AdminStatsService(mock(AdminStatsCounters.class), rollupService,
+                mock(CategoryStatsService.class), mock(ActivitySketchService.class));
+        RevenueStatsDto revenue = adminStats.getRevenueStats();
+        assertEquals(0, new BigDecimal("50.00").compareTo(revenue.getTotalRevenue()));
+        assertEquals(2, revenue.getTotalTransactions());
+        assertEquals(0, BigDecimal.TEN.compareTo(revenue.getMonthlyRevenue()));
+
+        // El backfill arranca en el mes del primer pago, desde el día 1
+        LocalDate oldMonth = twoYearsAgo.toLocalDate().withDayOfMonth(1);
+        assertEquals(0, new BigDecimal("40.00").compareTo(
+                rollupService.getMonthlyTotals(oldMonth, oldMonth.plusMonths(1)).getRevenue()));
+    }
+}
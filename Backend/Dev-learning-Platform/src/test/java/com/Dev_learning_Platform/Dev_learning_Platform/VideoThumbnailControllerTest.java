@@ -0,0 +1,84 @@
+package com.Dev_learning_Platform.Dev_learning_Platform;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.controllers.VideoThumbnailController;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.thumbnails.VideoThumbnailService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.thumbnails.VideoThumbnailService.Size;
+
+/**
+ * Ficheros de miniatura recortados de la caché entre que el servicio los encuentra y se leen.
+ */
+@ExtendWith(MockitoExtension.class)
+class VideoThumbnailControllerTest {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    @TempDir
+    Path cacheDir;
+
+    @Mock
+    private VideoThumbnailService thumbnailService;
+
+    @InjectMocks
+    private VideoThumbnailController controller;
+
+    @Test
+    void fileTrimmedAfterLookup_isFetchedAgain() throws IOException {
+        Path trimmed = cacheDir.resolve("recortada.jpg");
+        Path fetched = Files.write(cacheDir.resolve("descargada.jpg"), new byte[] {1, 2, 3});
+        when(thumbnailService.getThumbnail(VIDEO_ID, Size.MEDIUM))
+                .thenReturn(Optional.of(trimmed), Optional.of(fetched));
+
+        ResponseEntity<Resource> response = controller.getThumbnail(VIDEO_ID, Size.MEDIUM, null,
+                new MockHttpServletRequest());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getHeaders().getContentLength());
+        assertArrayEquals(new byte[] {1, 2, 3}, response.getBody().getContentAsByteArray());
+        verify(thumbnailService, times(2)).getThumbnail(VIDEO_ID, Size.MEDIUM);
+    }
+
+    @Test
+    void streamedBody_survivesTrimAfterResponseIsBuilt() throws IOException {
+        Path file = Files.write(cacheDir.resolve("miniatura.jpg"), new byte[] {4, 5});
+        when(thumbnailService.getThumbnail(VIDEO_ID, Size.SMALL)).thenReturn(Optional.of(file));
+
+        ResponseEntity<Resource> response = controller.getThumbnail(VIDEO_ID, Size.SMALL, null,
+                new MockHttpServletRequest());
+        Files.delete(file);
+
+        assertArrayEquals(new byte[] {4, 5}, response.getBody().getContentAsByteArray());
+    }
+
+    @Test
+    void fileTrimmedTwice_isBadGateway() throws IOException {
+        when(thumbnailService.getThumbnail(VIDEO_ID, Size.LARGE))
+                .thenReturn(Optional.of(cacheDir.resolve("recortada.jpg")));
+
+        ResponseEntity<Resource> response = controller.getThumbnail(VIDEO_ID, Size.LARGE, null,
+                new MockHttpServletRequest());
+
+        assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+        verify(thumbnailService, times(2)).getThumbnail(VIDEO_ID, Size.LARGE);
+    }
+}
@@ -0,0 +1,41 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.config;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+/**
+ * Valores resueltos de application.properties: un fallo de formato (p. ej. un comentario pegado al final
+ * de una línea) cambia el valor sin que nada falle al arrancar.
+ */
+class ApplicationPropertiesTest {
+
+    private static StandardEnvironment environment() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+        return environment;
+    }
+
+    @Test
+    @DisplayName("La URL pública de miniaturas es exactamente server.url + /api/thumbnails")
+    void thumbnailsPublicUrl_resolvesToServerUrl() throws IOException {
+        StandardEnvironment environment = environment();
+
+        assertEquals(environment.getProperty("server.url") + "/api/thumbnails",
+                environment.getProperty("app.thumbnails.public-url"));
+    }
+
+    @Test
+    @DisplayName("Los ajustes de latidos de reproducción son numéricos")
+    void watchSettings_areNumeric() throws IOException {
+        StandardEnvironment environment = environment();
+
+        assertEquals(10, environment.getProperty("app.watch.bucket-seconds", Integer.class));
+        assertEquals(60_000L, environment.getProperty("app.watch.flush-interval-ms", Long.class));
+        assertEquals(200, environment.getProperty("app.watch.max-batch", Integer.class));
+    }
+}
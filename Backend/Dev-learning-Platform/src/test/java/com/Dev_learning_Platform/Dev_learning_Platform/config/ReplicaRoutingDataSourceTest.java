@@ -0,0 +1,86 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Enrutado primario/réplica con dos bases H2 en memoria que hacen de primario y réplica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, 60_000));
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(20))");
+        template.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String node() {
+        List<String> names = jdbcTemplate.queryForList("SELECT name FROM node", String.class);
+        return names.get(0);
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(email, null, List.of()));
+    }
+
+    @Test
+    @DisplayName("Las transacciones de solo lectura van a la réplica y las de escritura al primario")
+    void routesByTransactionReadOnlyFlag() {
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node()); // Sin transacción
+    }
+
+    @Test
+    @DisplayName("Tras escribir, las lecturas del mismo usuario se fijan al primario")
+    void pinsReadsToPrimaryAfterOwnWrite() {
+        authenticate("ana@example.com");
+        assertEquals("replica", readOnly.execute(status -> node()));
+
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO node VALUES ('x')"));
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        authenticate("otro@example.com");
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+}
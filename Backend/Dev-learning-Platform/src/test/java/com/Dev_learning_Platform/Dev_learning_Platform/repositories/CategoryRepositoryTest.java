@@ -0,0 +1,69 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistCourse;
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistUser;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Category;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+
+/**
+ * Test de repositorio de las estadísticas por categoría (H2 en modo MySQL).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CategoryRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private Category category;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = persistUser(entityManager, "instructor", User.Role.INSTRUCTOR);
+
+        course = persistCourse(entityManager, instructor);
+        category = course.getCategory();
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("aggregateCategoryStats no multiplica los cursos por el join con inscripciones")
+    void aggregateCategoryStats_countsDistinctCourses() {
+        LocalDateTime now = LocalDateTime.now();
+        User student = persistUser(entityManager, "student", User.Role.STUDENT);
+        User otherStudent = persistUser(entityManager, "student2", User.Role.STUDENT);
+        enrollmentRepository.insertIfAbsent(student.getId(), course.getId(), null, now);
+        enrollmentRepository.insertIfAbsent(otherStudent.getId(), course.getId(), null, now);
+
+        Object[] row = categoryRepository.aggregateCategoryStats().stream()
+                .filter(r -> category.getId().equals(r[0]))
+                .findFirst().orElseThrow();
+
+        assertEquals(1L, ((Number) row[5]).longValue());   // cursos
+        assertEquals(0L, ((Number) row[6]).longValue());   // publicados
+        assertEquals(2L, ((Number) row[7]).longValue());   // inscripciones
+        assertEquals(2L, ((Number) row[8]).longValue());   // activas
+        assertEquals(2L, ((Number) row[10]).longValue());  // alumnos
+    }
+}
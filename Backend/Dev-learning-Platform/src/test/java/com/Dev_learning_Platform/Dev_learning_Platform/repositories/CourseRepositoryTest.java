@@ -0,0 +1,109 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistCourse;
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistUser;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+
+/**
+ * Test de repositorio de las consultas de cursos (H2 en modo MySQL).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CourseRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = persistUser(entityManager, "instructor", User.Role.INSTRUCTOR);
+        student = persistUser(entityManager, "student", User.Role.STUDENT);
+
+        course = persistCourse(entityManager, instructor);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("findSyllabusAccess devuelve rol, instructor e inscripciones en una consulta")
+    void findSyllabusAccess_combinesRoleInstructorAndEnrollment() {
+        Object[] before = courseRepository.findSyllabusAccess(student.getEmail(), course.getId()).get(0);
+        assertEquals(student.getId(), before[0]);
+        assertEquals(User.Role.STUDENT, before[1]);
+        assertEquals(course.getInstructor().getId(), before[2]);
+        assertEquals(0L, ((Number) before[3]).longValue());
+
+        enrollmentRepository.insertIfAbsent(student.getId(), course.getId(), null, LocalDateTime.now());
+        Object[] after = courseRepository.findSyllabusAccess(student.getEmail(), course.getId()).get(0);
+        assertEquals(1L, ((Number) after[3]).longValue());
+
+        assertEquals(0, courseRepository.findSyllabusAccess("nadie@example.com", course.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Los agregados de videos del curso se ajustan por deltas y se recalculan desde los videos activos")
+    void courseVideoAggregates_adjustAndRecompute() {
+        persistVideo("aaaaaaaaaaa", 300, true);
+        persistVideo("bbbbbbbbbbb", 900, true);
+        persistVideo("ccccccccccc", 1200, false);
+
+        courseRepository.recomputeVideoAggregates(List.of(course.getId()));
+        assertAggregates(2, 1200L, 900);
+
+        courseRepository.applyVideoChange(course.getId(), 1, 600L, 600);
+        assertAggregates(3, 1800L, 900);
+
+        // Sin video de 900 segundos activo, la lección más larga se vuelve a leer
+        entityManager.getEntityManager().createQuery("UPDATE CourseVideo v SET v.isActive = false "
+                + "WHERE v.youtubeVideoId = 'bbbbbbbbbbb'").executeUpdate();
+        courseRepository.applyVideoChange(course.getId(), -1, -900L, 0);
+        courseRepository.recomputeLongestLesson(course.getId());
+        assertAggregates(2, 900L, 300);
+        assertEquals(2L, courseRepository.findContentVersionById(course.getId()).orElseThrow());
+    }
+
+    private void persistVideo(String youtubeVideoId, int durationSeconds, boolean active) {
+        CourseVideo video = new CourseVideo();
+        video.setTitle("Lección " + youtubeVideoId);
+        video.setYoutubeUrl("https://youtu.be/" + youtubeVideoId);
+        video.setYoutubeVideoId(youtubeVideoId);
+        video.setOrderIndex(1);
+        video.setDurationSeconds(durationSeconds);
+        video.setIsActive(active);
+        video.setCourse(course);
+        entityManager.persist(video);
+        entityManager.flush();
+    }
+
+    private void assertAggregates(int lessons, long durationSeconds, int longestSeconds) {
+        entityManager.clear();
+        Course stored = entityManager.find(Course.class, course.getId());
+        assertEquals(lessons, stored.getActiveLessonCount());
+        assertEquals(durationSeconds, stored.getTotalDurationSeconds());
+        assertEquals(longestSeconds, stored.getLongestLessonSeconds());
+    }
+}
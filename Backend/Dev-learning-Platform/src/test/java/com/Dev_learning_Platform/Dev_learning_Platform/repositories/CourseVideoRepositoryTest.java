@@ -0,0 +1,179 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistCourse;
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistUser;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideo;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.CourseVideoArchive;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+
+/**
+ * Test de repositorio de la purga de videos dados de baja (H2 en modo MySQL).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CourseVideoRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CourseVideoRepository courseVideoRepository;
+
+    @Autowired
+    private VideoWatchBucketRepository videoWatchBucketRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = persistUser(entityManager, "instructor", User.Role.INSTRUCTOR);
+
+        course = persistCourse(entityManager, instructor);
+    }
+
+    private CourseVideo persistVideo(String youtubeVideoId, boolean active, LocalDateTime deactivatedAt) {
+        CourseVideo video = new CourseVideo();
+        video.setTitle("Lección " + youtubeVideoId);
+        video.setYoutubeUrl("https://youtu.be/" + youtubeVideoId);
+        video.setYoutubeVideoId(youtubeVideoId);
+        video.setOrderIndex(1);
+        video.setIsActive(active);
+        video.setDeactivatedAt(deactivatedAt);
+        video.setCourse(course);
+        return entityManager.persist(video);
+    }
+
+    @Test
+    @DisplayName("La purga archiva solo los videos dados de baja antes de la fecha de corte")
+    void purge_archivesOnlyLongInactiveVideos() {
+        LocalDateTime now = LocalDateTime.now();
+        persistVideo("aaaaaaaaaaa", true, null);
+        CourseVideo old = persistVideo("bbbbbbbbbbb", false, now.minusDays(120));
+        persistVideo("ccccccccccc", false, now.minusDays(10));
+        CourseVideo undated = persistVideo("ddddddddddd", false, null);
+        entityManager.flush();
+
+        assertEquals(1, courseVideoRepository.stampUndatedInactive(now));
+        List<Object[]> candidates = courseVideoRepository.findPurgeCandidates(now.minusDays(90), PageRequest.of(0, 10));
+        assertEquals(1, candidates.size());
+        assertEquals(old.getId(), candidates.get(0)[0]);
+        assertEquals(course.getId(), candidates.get(0)[1]);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", List.of(old.getId(), undated.getId()))
+                .addValue("archivedAt", now);
+        jdbcTemplate.update(CourseVideoRepository.ARCHIVE_INACTIVE_SQL, params);
+        assertEquals(2, jdbcTemplate.update(CourseVideoRepository.DELETE_INACTIVE_SQL, params));
+
+        entityManager.clear();
+        CourseVideoArchive archived = entityManager.find(CourseVideoArchive.class, old.getId());
+        assertEquals("bbbbbbbbbbb", archived.getYoutubeVideoId());
+        assertEquals(course.getId(), archived.getCourseId());
+        assertNull(entityManager.find(CourseVideo.class, old.getId()));
+        assertEquals(2, courseVideoRepository.findByCourseId(course.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Las miniaturas con otra URL pasan al proxy y las ya correctas no se tocan")
+    void rewriteThumbnailUrls_movesLegacyUrlsToProxy() {
+        CourseVideo legacy = persistVideo("aaaaaaaaaaa", true, null);
+        legacy.setThumbnailUrl("https://img.youtube.com/vi/aaaaaaaaaaa/maxresdefault.jpg");
+        CourseVideo missing = persistVideo("bbbbbbbbbbb", true, null);
+        CourseVideo current = persistVideo("ccccccccccc", true, null);
+        current.setThumbnailUrl("/api/thumbnails/ccccccccccc");
+        entityManager.flush();
+
+        assertTrue(courseVideoRepository.rewriteThumbnailUrls("/api/thumbnails") >= 2);
+        assertEquals(0, courseVideoRepository.rewriteThumbnailUrls("/api/thumbnails"));
+
+        entityManager.clear();
+        assertEquals("/api/thumbnails/aaaaaaaaaaa",
+                entityManager.find(CourseVideo.class, legacy.getId()).getThumbnailUrl());
+        assertEquals("/api/thumbnails/bbbbbbbbbbb",
+                entityManager.find(CourseVideo.class, missing.getId()).getThumbnailUrl());
+        assertEquals("/api/thumbnails/ccccccccccc",
+                entityManager.find(CourseVideo.class, current.getId()).getThumbnailUrl());
+    }
+
+    @Test
+    @DisplayName("El temario usa el índice (course_id, is_active, order_index)")
+    void syllabusQuery_usesCourseActiveOrderIndex() {
+        String plan = String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT * FROM course_videos v WHERE v.course_id = 1 "
+                        + "AND v.is_active = TRUE ORDER BY v.order_index")
+                .getSingleResult()).toLowerCase(Locale.ROOT);
+
+        assertFalse(plan.contains("course_videos.tablescan"), plan);
+        assertTrue(plan.contains("idx_course_videos_course_active_order"), plan);
+    }
+
+    @Test
+    @DisplayName("El volcado de latidos suma sobre los tramos existentes y crea los nuevos")
+    void watchBucketUpsert_addsToExistingBuckets() {
+        CourseVideo video = persistVideo("eeeeeeeeeee", true, null);
+        entityManager.flush();
+
+        jdbcTemplate.batchUpdate(VideoWatchBucketRepository.UPSERT_SQL, new SqlParameterSource[] {
+                bucket(video.getId(), 0, 5), bucket(video.getId(), 10, 3)});
+        jdbcTemplate.batchUpdate(VideoWatchBucketRepository.UPSERT_SQL, new SqlParameterSource[] {
+                bucket(video.getId(), 10, 4), bucket(video.getId(), 20, 1)});
+
+        List<Object[]> curve = videoWatchBucketRepository.findCurveByVideoId(video.getId());
+        assertEquals(3, curve.size());
+        assertEquals(List.of(0, 10, 20), curve.stream().map(row -> row[0]).toList());
+        assertEquals(List.of(5L, 7L, 1L), curve.stream().map(row -> row[1]).toList());
+    }
+
+    @Test
+    @DisplayName("Una edición leída antes de una reordenación por lotes falla en vez de pisar el orden")
+    void staleEdit_afterBatchReorder_failsWithConflict() {
+        CourseVideo video = persistVideo("fffffffffff", true, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        CourseVideo stale = courseVideoRepository.findById(video.getId()).orElseThrow();
+        assertEquals(0L, stale.getVersion());
+        jdbcTemplate.update(CourseVideoRepository.UPDATE_ORDER_SQL, new MapSqlParameterSource()
+                .addValue("orderIndex", 5)
+                .addValue("id", video.getId())
+                .addValue("courseId", course.getId()));
+
+        stale.setTitle("Edición con versión antigua");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> courseVideoRepository.saveAndFlush(stale));
+    }
+
+    private static SqlParameterSource bucket(Long videoId, int startSecond, long heartbeats) {
+        return new MapSqlParameterSource()
+                .addValue("videoId", videoId)
+                .addValue("startSecond", startSecond)
+                .addValue("heartbeats", heartbeats);
+    }
+}
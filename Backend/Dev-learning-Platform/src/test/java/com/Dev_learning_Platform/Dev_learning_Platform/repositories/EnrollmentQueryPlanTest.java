@@ -0,0 +1,117 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment.EnrollmentStatus;
+
+/**
+ * Ejecuta EXPLAIN sobre las consultas calientes de {@link EnrollmentRepository} (H2 en modo MySQL)
+ * y falla si alguna recorre la tabla de inscripciones completa. El SQL es el que genera Hibernate al
+ * llamar al método del repositorio, así que un cambio en la consulta se refleja en el plan.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EnrollmentQueryPlanTest {
+
+    private static final LocalDateTime SINCE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    // Guarda el SQL que Hibernate envía a la base de datos
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @TestConfiguration
+    static class StatementRecorderConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer statementRecorder() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    (StatementInspector) sql -> {
+                        synchronized (STATEMENTS) {
+                            STATEMENTS.add(sql);
+                        }
+                        return sql;
+                    });
+        }
+    }
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                query("findByStudentIdAndCourseId", repository -> repository.findByStudentIdAndCourseId(1L, 1L)),
+                query("findByStudentId", repository -> repository.findByStudentId(1L)),
+                query("findActiveByStudentId", repository -> repository.findActiveByStudentId(1L)),
+                query("findCompletedByStudentId", repository -> repository.findCompletedByStudentId(1L)),
+                query("findByCourseId", repository -> repository.findByCourseId(1L)),
+                query("findActiveByCourseId", repository -> repository.findActiveByCourseId(1L)),
+                query("countActiveEnrollmentsByCourseId", repository -> repository.countActiveEnrollmentsByCourseId(1L)),
+                query("getAverageProgressByCourseId", repository -> repository.getAverageProgressByCourseId(1L)),
+                query("getEnrollmentStatsByCourse", EnrollmentRepository::getEnrollmentStatsByCourse),
+                query("countByStatus", repository -> repository.countByStatus(EnrollmentStatus.COMPLETED)),
+                query("findRecentEnrollments", repository -> repository.findRecentEnrollments(SINCE)),
+                query("countByCreatedAtBetween",
+                        repository -> repository.countByCreatedAtBetween(SINCE, SINCE.plusMonths(1))),
+                query("countByCourseIdAndStatusNot",
+                        repository -> repository.countByCourseIdAndStatusNot(1L, EnrollmentStatus.SUSPENDED)),
+                query("aggregateByCourseForInstructor", repository -> repository.aggregateByCourseForInstructor(1L)),
+                query("countEnrolledByCourseAndDayForInstructor",
+                        repository -> repository.countEnrolledByCourseAndDayForInstructor(1L, SINCE)));
+    }
+
+    private static Arguments query(String name, Consumer<EnrollmentRepository> call) {
+        return Arguments.of(name, call);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQuery_usesIndex(String query, Consumer<EnrollmentRepository> call) {
+        String sql = capture(call);
+        // Los parámetros no cambian el plan de H2; se enlazan a null solo para poder ejecutar el EXPLAIN
+        String plan = jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+        }, rs -> rs.next() ? rs.getString(1) : "");
+
+        assertFalse(plan.toLowerCase(Locale.ROOT).contains("enrollments.tablescan"),
+                () -> query + " recorre la tabla completa:\n" + sql + "\n" + plan);
+    }
+
+    private String capture(Consumer<EnrollmentRepository> call) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+        call.accept(enrollmentRepository);
+        synchronized (STATEMENTS) {
+            return STATEMENTS.stream()
+                    .filter(sql -> sql.toLowerCase(Locale.ROOT).contains("enrollments"))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("El método no consultó la tabla de inscripciones"));
+        }
+    }
+}
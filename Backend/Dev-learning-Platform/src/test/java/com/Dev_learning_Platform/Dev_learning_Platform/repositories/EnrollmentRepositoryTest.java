@@ -0,0 +1,93 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistCourse;
+import static com.Dev_learning_Platform.Dev_learning_Platform.repositories.JpaTestFixtures.persistUser;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Enrollment;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+
+/**
+ * Test de repositorio contra H2 en modo MySQL (misma URL que el perfil de test).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EnrollmentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = persistUser(entityManager, "instructor", User.Role.INSTRUCTOR);
+        student = persistUser(entityManager, "student", User.Role.STUDENT);
+
+        course = persistCourse(entityManager, instructor);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("insertIfAbsent crea la inscripción una sola vez")
+    void insertIfAbsent_isIdempotent() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(1, enrollmentRepository.insertIfAbsent(student.getId(), course.getId(), null, now));
+        assertEquals(0, enrollmentRepository.insertIfAbsent(student.getId(), course.getId(), null, now));
+
+        Enrollment enrollment = enrollmentRepository
+                .findByStudentIdAndCourseId(student.getId(), course.getId()).orElseThrow();
+        assertEquals(Enrollment.EnrollmentStatus.ACTIVE, enrollment.getStatus());
+        assertEquals(0, enrollment.getProgressPercentage());
+        assertNull(enrollment.getPayment());
+        assertEquals(1, enrollmentRepository.findByCourseId(course.getId()).size());
+    }
+
+    @Test
+    @DisplayName("insertIfAbsent falla con un curso o alumno inexistente en vez de darlo por inscrito")
+    void insertIfAbsent_withUnknownCourseOrStudent_fails() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> enrollmentRepository.insertIfAbsent(student.getId(), 999_999L, null, now));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> enrollmentRepository.insertIfAbsent(999_999L, course.getId(), null, now));
+    }
+
+    @Test
+    @DisplayName("countEnrolledByDayAndCategory agrupa por día y categoría")
+    void countEnrolledByDayAndCategory_groupsByDay() {
+        LocalDateTime now = LocalDateTime.now();
+        enrollmentRepository.insertIfAbsent(student.getId(), course.getId(), null, now);
+
+        List<Object[]> rows = enrollmentRepository.countEnrolledByDayAndCategory(
+                now.toLocalDate().atStartOfDay(), now.toLocalDate().plusDays(1).atStartOfDay());
+
+        assertEquals(1, rows.size());
+        assertEquals(now.toLocalDate(), (LocalDate) rows.get(0)[0]);
+        assertEquals(course.getCategory().getId(), rows.get(0)[1]);
+        assertEquals(1L, ((Number) rows.get(0)[2]).longValue());
+    }
+}
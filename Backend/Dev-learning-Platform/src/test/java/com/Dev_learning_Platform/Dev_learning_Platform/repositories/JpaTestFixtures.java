@@ -0,0 +1,53 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.repositories;
+
+import java.math.BigDecimal;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Category;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Course;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.Subcategory;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.User;
+
+/**
+ * Datos de partida comunes de los tests con base de datos: usuarios y un curso con su categoría y
+ * subcategoría. Los nombres únicos evitan choques con lo que otros tests dejan confirmado.
+ */
+public final class JpaTestFixtures {
+
+    private JpaTestFixtures() {
+    }
+
+    public static User persistUser(TestEntityManager entityManager, String prefix, User.Role role) {
+        User user = new User();
+        user.setUserName(prefix);
+        user.setLastName("Test");
+        user.setEmail(prefix + System.nanoTime() + "@example.com");
+        user.setPassword("x");
+        user.setRole(role);
+        return entityManager.persist(user);
+    }
+
+    /**
+     * Curso "Curso de Spring" del instructor en una categoría nueva con la subcategoría "Java".
+     */
+    public static Course persistCourse(TestEntityManager entityManager, User instructor) {
+        Category category = new Category();
+        category.setName("Backend-" + System.nanoTime());
+        entityManager.persist(category);
+
+        Subcategory subcategory = new Subcategory();
+        subcategory.setName("Java");
+        subcategory.setCategory(category);
+        entityManager.persist(subcategory);
+
+        Course course = new Course();
+        course.setTitle("Curso de Spring");
+        course.setDescription("Descripción del curso");
+        course.setInstructor(instructor);
+        course.setCategory(category);
+        course.setSubcategory(subcategory);
+        course.setPrice(BigDecimal.TEN);
+        return entityManager.persist(course);
+    }
+}
@@ -0,0 +1,68 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services.activity;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.events.CourseActivityEvent;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.ActivitySketch;
+import com.Dev_learning_Platform.Dev_learning_Platform.models.ActivitySketch.Scope;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.ActivitySketchRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CategoryRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseRepository;
+
+/**
+ * Volcado de sketches desde varias instancias contra H2 en modo MySQL.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ActivitySketchServiceTest {
+
+    private static final Long COURSE_ID = 42L;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ActivitySketchRepository sketchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ActivitySketchService instance() {
+        return new ActivitySketchService(sketchRepository, mock(CourseRepository.class),
+                mock(CategoryRepository.class), new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Dos instancias que vuelcan el mismo día combinan sus alumnos en una sola fila")
+    void flush_fromTwoInstances_mergesRegisters() {
+        ActivitySketchService first = instance();
+        ActivitySketchService second = instance();
+        for (long student = 1; student <= 50; student++) {
+            first.onCourseActivity(new CourseActivityEvent(student, COURSE_ID));
+            second.onCourseActivity(new CourseActivityEvent(student + 25, COURSE_ID));
+        }
+
+        first.flush();
+        second.flush();
+        entityManager.flush();
+        entityManager.clear();
+
+        ActivitySketch stored = sketchRepository.findForUpdate(Scope.COURSE, COURSE_ID, LocalDate.now()).orElseThrow();
+        long estimate = HyperLogLog.fromBytes(stored.getRegisters()).estimate();
+        assertEquals(75, estimate, 3);
+        assertEquals(1, sketchRepository.count());
+    }
+}
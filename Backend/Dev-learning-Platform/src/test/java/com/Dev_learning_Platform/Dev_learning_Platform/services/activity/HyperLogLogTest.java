@@ -0,0 +1,61 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services.activity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Precisión, unión y serialización del sketch de usuarios distintos.
+ */
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("La estimación queda dentro del 3 % en cardinalidades pequeñas y grandes")
+    void estimate_withinErrorBounds() {
+        for (int cardinality : new int[] {10, 1_000, 200_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (long id = 1; id <= cardinality; id++) {
+                sketch.add(HyperLogLog.hash(id));
+                sketch.add(HyperLogLog.hash(id)); // Repetidos no cuentan
+            }
+            double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+            assertTrue(error < 0.03, "Error " + error + " para " + cardinality);
+        }
+    }
+
+    @Test
+    @DisplayName("La unión de dos días cuenta una sola vez a los usuarios comunes")
+    void merge_countsOverlapOnce() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        for (long id = 0; id < 6_000; id++) {
+            monday.add(HyperLogLog.hash("alumno" + id + "@test.com"));
+        }
+        for (long id = 3_000; id < 9_000; id++) {
+            tuesday.add(HyperLogLog.hash("alumno" + id + "@test.com"));
+        }
+        monday.merge(tuesday);
+        monday.merge(tuesday);
+
+        assertEquals(9_000, monday.estimate(), 9_000 * 0.03);
+    }
+
+    @Test
+    @DisplayName("Los sketches pequeños se guardan dispersos y la serialización conserva la estimación")
+    void toBytes_roundTrip() {
+        HyperLogLog small = new HyperLogLog();
+        HyperLogLog large = new HyperLogLog();
+        for (long id = 0; id < 50_000; id++) {
+            if (id < 100) {
+                small.add(HyperLogLog.hash(id));
+            }
+            large.add(HyperLogLog.hash(id));
+        }
+
+        byte[] smallBytes = small.toBytes();
+        assertTrue(smallBytes.length < 400, "Sketch disperso de " + smallBytes.length + " bytes");
+        assertEquals(small.estimate(), HyperLogLog.fromBytes(smallBytes).estimate());
+        assertEquals(large.estimate(), HyperLogLog.fromBytes(large.toBytes()).estimate());
+    }
+}
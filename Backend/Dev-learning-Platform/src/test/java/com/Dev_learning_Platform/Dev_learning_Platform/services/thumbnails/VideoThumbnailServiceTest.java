@@ -0,0 +1,179 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services.thumbnails;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.thumbnails.VideoThumbnailService.Size;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Caché de miniaturas contra un servidor HTTP local que hace de YouTube.
+ */
+class VideoThumbnailServiceTest {
+
+    private static final String VIDEO_ID = "dQw4w9WgXcQ";
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer youtube;
+    // Imágenes publicadas por ruta (/vi/{id}/{resolución}.jpg) y peticiones recibidas
+    private final Map<String, byte[]> images = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    // Ids de YouTube que usa algún video de la plataforma
+    private final Set<String> knownIds = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        knownIds.addAll(List.of(VIDEO_ID, "aaaaaaaaaaa"));
+        youtube = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        youtube.createContext("/vi/", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = images.get(exchange.getRequestURI().getPath());
+            exchange.sendResponseHeaders(body != null ? 200 : 404, body != null ? body.length : -1);
+            if (body != null) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        youtube.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        youtube.stop(0);
+    }
+
+    private VideoThumbnailService service(long maxBytes) throws IOException {
+        CourseVideoRepository courseVideoRepository = mock(CourseVideoRepository.class);
+        when(courseVideoRepository.existsByYoutubeVideoId(anyString()))
+                .thenAnswer(invocation -> knownIds.contains(invocation.<String>getArgument(0)));
+        VideoThumbnailService service = new VideoThumbnailService(courseVideoRepository);
+        ReflectionTestUtils.setField(service, "origin", "http://127.0.0.1:" + youtube.getAddress().getPort());
+        ReflectionTestUtils.setField(service, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(service, "maxBytes", maxBytes);
+        ReflectionTestUtils.setField(service, "missingTtlMs", 60_000L);
+        ReflectionTestUtils.setField(service, "missingMaxEntries", 2);
+        ReflectionTestUtils.setField(service, "fetchTimeoutMs", 2_000L);
+        ReflectionTestUtils.setField(service, "maxConcurrentFetches", 4);
+        service.init();
+        return service;
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpeg", out);
+        return out.toByteArray();
+    }
+
+    private static int width(Path file) throws IOException {
+        return ImageIO.read(file.toFile()).getWidth();
+    }
+
+    @Test
+    void getThumbnail_fallsBackToBestAvailableResolution_andDownloadsOnce() throws IOException {
+        images.put("/vi/" + VIDEO_ID + "/hqdefault.jpg", jpeg(480, 360));
+        VideoThumbnailService service = service(10_000_000L);
+
+        Path medium = service.getThumbnail(VIDEO_ID, Size.MEDIUM).orElseThrow();
+        Path small = service.getThumbnail(VIDEO_ID, Size.SMALL).orElseThrow();
+        service.getThumbnail(VIDEO_ID, Size.LARGE).orElseThrow();
+
+        // maxres y sd no existen: 3 peticiones en total, ninguna más tras la primera descarga
+        assertEquals(3, requests.get());
+        assertEquals(320, width(small));
+        assertEquals(480, width(medium));   // nunca se amplía la fuente
+        assertTrue(service.getCachedBytes() > 0);
+
+        // Un reinicio reconstruye el índice desde disco sin volver a descargar
+        service(10_000_000L).getThumbnail(VIDEO_ID, Size.SMALL).orElseThrow();
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void getThumbnail_withoutThumbnail_isEmpty_andRemembered() throws IOException {
+        images.put("/vi/" + VIDEO_ID + "/maxresdefault.jpg", jpeg(120, 90));   // imagen gris de relleno
+        VideoThumbnailService service = service(10_000_000L);
+
+        assertEquals(Optional.empty(), service.getThumbnail(VIDEO_ID, Size.MEDIUM));
+        int afterFirst = requests.get();
+        assertEquals(Optional.empty(), service.getThumbnail(VIDEO_ID, Size.SMALL));
+        assertEquals(afterFirst, requests.get());
+    }
+
+    @Test
+    void getThumbnail_evictsLeastRecentlyUsedFiles_aboveLimit() throws IOException {
+        String other = "aaaaaaaaaaa";
+        images.put("/vi/" + VIDEO_ID + "/maxresdefault.jpg", jpeg(1280, 720));
+        images.put("/vi/" + other + "/maxresdefault.jpg", jpeg(1280, 720));
+        VideoThumbnailService unbounded = service(Long.MAX_VALUE);
+        unbounded.getThumbnail(VIDEO_ID, Size.SMALL);
+        long onePerVideo = unbounded.getCachedBytes();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+
+        VideoThumbnailService service = service(onePerVideo);
+        Path first = service.getThumbnail(VIDEO_ID, Size.LARGE).orElseThrow();
+        service.getThumbnail(other, Size.LARGE).orElseThrow();
+
+        assertFalse(Files.exists(first));
+        assertTrue(service.getCachedBytes() <= onePerVideo);
+        assertThrows(IllegalArgumentException.class, () -> service.getThumbnail("../../etc/x", Size.SMALL));
+    }
+
+    @Test
+    void getThumbnail_unknownVideoId_isEmpty_withoutContactingYoutube() throws IOException {
+        String unknown = "zzzzzzzzzzz";
+        images.put("/vi/" + unknown + "/maxresdefault.jpg", jpeg(1280, 720));
+        VideoThumbnailService service = service(10_000_000L);
+
+        assertEquals(Optional.empty(), service.getThumbnail(unknown, Size.SMALL));
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    void getThumbnail_rememberedMissingIds_areBounded() throws IOException {
+        VideoThumbnailService service = service(10_000_000L);
+        for (String id : List.of("bbbbbbbbbbb", "ccccccccccc", "ddddddddddd", "eeeeeeeeeee")) {
+            service.getThumbnail(id, Size.SMALL);
+        }
+
+        Map<?, ?> missing = (Map<?, ?>) ReflectionTestUtils.getField(service, "missingUntil");
+        assertEquals(2, missing.size());
+        assertTrue(missing.containsKey("eeeeeeeeeee"));
+        assertFalse(missing.containsKey("bbbbbbbbbbb"));
+    }
+}
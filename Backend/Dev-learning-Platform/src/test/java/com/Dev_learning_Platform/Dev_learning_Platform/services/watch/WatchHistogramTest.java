@@ -0,0 +1,94 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services.watch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Conteo por tramos, vaciado y concurrencia del histograma de reproducción.
+ */
+class WatchHistogramTest {
+
+    @Test
+    @DisplayName("Cada posición cae en su tramo y las posiciones fuera de rango en los extremos")
+    void record_bucketsOffsets() {
+        WatchHistogram histogram = new WatchHistogram(10, 60, 4);
+        histogram.record(0);
+        histogram.record(9);
+        histogram.record(10);
+        histogram.record(60);
+        histogram.record(-5);
+        histogram.record(5_000);
+
+        assertEquals(7, histogram.getBuckets());
+        assertArrayEquals(new long[] {3, 1, 0, 0, 0, 0, 2}, histogram.snapshot());
+    }
+
+    @Test
+    @DisplayName("Vaciar devuelve lo acumulado y restaurar lo vuelve a sumar")
+    void drain_thenRestore() {
+        WatchHistogram histogram = new WatchHistogram(10, 30, 2);
+        histogram.record(15);
+        histogram.record(15);
+
+        long[] drained = histogram.drain();
+        assertArrayEquals(new long[] {0, 2, 0, 0}, drained);
+        assertArrayEquals(new long[4], histogram.snapshot());
+
+        histogram.record(25);
+        histogram.restore(drained);
+        assertArrayEquals(new long[] {0, 2, 1, 0}, histogram.snapshot());
+    }
+
+    @Test
+    @DisplayName("Ningún latido se pierde con escritores y vaciados simultáneos")
+    void concurrentRecordAndDrain_losesNothing() throws InterruptedException {
+        WatchHistogram histogram = new WatchHistogram(10, 600, 8);
+        int writers = 8;
+        int perWriter = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int seed = w;
+            threads.add(Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < perWriter; i++) {
+                    histogram.record((seed * 31 + i) % 600);
+                }
+            }));
+        }
+
+        long total = 0;
+        start.countDown();
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            total += sum(histogram.drain());
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        total += sum(histogram.drain());
+
+        assertEquals((long) writers * perWriter, total);
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.Dev_learning_Platform.Dev_learning_Platform.services.watch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Dev_learning_Platform.Dev_learning_Platform.dtos.courses.WatchHeartbeatDto;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.CourseVideoRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.repositories.VideoWatchBucketRepository;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseSyllabusService;
+import com.Dev_learning_Platform.Dev_learning_Platform.services.CourseVideoService;
+
+/**
+ * Test unitario de la ingesta y el volcado de latidos: acceso por curso, reintento tras un fallo al
+ * guardar y liberación de los videos sin actividad sin perder latidos concurrentes.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class WatchTimeServiceTest {
+
+    private static final String EMAIL = "alumno@example.com";
+
+    @Mock
+    private CourseVideoRepository courseVideoRepository;
+
+    @Mock
+    private VideoWatchBucketRepository videoWatchBucketRepository;
+
+    @Mock
+    private CourseVideoService courseVideoService;
+
+    @Mock
+    private CourseSyllabusService courseSyllabusService;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private WatchTimeService service;
+
+    // Latidos guardados por video, sumando todos los volcados
+    private final Map<Long, Long> saved = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "bucketSeconds", 10);
+        ReflectionTestUtils.setField(service, "maxBatch", 200);
+        ReflectionTestUtils.setField(service, "stripes", 4);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        // Videos 1-99 del curso 1 y 100+ del curso 2, todos de 600 segundos
+        when(courseVideoRepository.findWatchMetadata(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Object id : invocation.<Collection<?>>getArgument(0)) {
+                Long videoId = (Long) id;
+                rows.add(new Object[] {videoId, videoId < 100 ? 1L : 2L, 600});
+            }
+            return rows;
+        });
+        when(courseSyllabusService.canView(anyString(), anyLong())).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(eq(VideoWatchBucketRepository.UPSERT_SQL), any(SqlParameterSource[].class)))
+                .thenAnswer(invocation -> save(invocation.getArgument(1)));
+    }
+
+    private int[] save(SqlParameterSource[] rows) {
+        synchronized (saved) {
+            for (SqlParameterSource row : rows) {
+                saved.merge((Long) row.getValue("videoId"), (Long) row.getValue("heartbeats"), Long::sum);
+            }
+        }
+        return new int[rows.length];
+    }
+
+    private static WatchHeartbeatDto heartbeat(long videoId, int offsetSeconds) {
+        WatchHeartbeatDto dto = new WatchHeartbeatDto();
+        dto.setVideoId(videoId);
+        dto.setOffsetSeconds(offsetSeconds);
+        return dto;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, WatchHistogram> histograms() {
+        return (Map<Long, WatchHistogram>) ReflectionTestUtils.getField(service, "histograms");
+    }
+
+    @Test
+    @DisplayName("Se descartan los latidos de cursos que el alumno no puede ver y las posiciones fuera del video")
+    void recordHeartbeats_dropsCoursesWithoutAccess() {
+        when(courseSyllabusService.canView(EMAIL, 2L)).thenReturn(false);
+
+        int accepted = service.recordHeartbeats(EMAIL, List.of(heartbeat(1L, 0), heartbeat(1L, 15),
+                heartbeat(100L, 0), heartbeat(1L, 601), heartbeat(7L, -1)));
+        service.flush();
+
+        assertEquals(2, accepted);
+        assertEquals(Map.of(1L, 2L), saved);
+    }
+
+    @Test
+    @DisplayName("Si el volcado falla, los conteos vuelven al histograma y se guardan en el siguiente")
+    void flush_whenWriteFails_restoresCounts() {
+        service.recordHeartbeats(EMAIL, List.of(heartbeat(1L, 0), heartbeat(1L, 20), heartbeat(2L, 5)));
+        when(jdbcTemplate.batchUpdate(eq(VideoWatchBucketRepository.UPSERT_SQL), any(SqlParameterSource[].class)))
+                .thenThrow(new DataAccessResourceFailureException("base de datos caída"))
+                .thenAnswer(invocation -> save(invocation.getArgument(1)));
+
+        service.flush();
+        assertTrue(saved.isEmpty());
+
+        service.recordHeartbeats(EMAIL, List.of(heartbeat(1L, 30)));
+        service.flush();
+        assertEquals(Map.of(1L, 3L, 2L, 1L), saved);
+    }
+
+    @Test
+    @DisplayName("Un video sin latidos desde el último volcado se suelta de memoria y vuelve al recibir otro")
+    void flush_idleVideo_isRemovedAndRecreated() {
+        service.recordHeartbeats(EMAIL, List.of(heartbeat(1L, 0), heartbeat(2L, 0)));
+        service.flush();
+        assertEquals(2, histograms().size());
+
+        service.recordHeartbeats(EMAIL, List.of(heartbeat(2L, 10)));
+        service.flush();
+        assertEquals(List.of(2L), List.copyOf(histograms().keySet()));
+
+        service.recordHeartbeats(EMAIL, List.of(heartbeat(1L, 10)));
+        service.flush();
+        assertEquals(Map.of(1L, 2L, 2L, 2L), saved);
+    }
+
+    @Test
+    @DisplayName("Ningún latido se pierde aunque los volcados suelten videos mientras se registran")
+    void concurrentHeartbeatsAndFlushes_loseNothing() throws InterruptedException {
+        int writers = 4;
+        int batches = 2_000;
+        CountDownLatch start = new CountDownLatch(1);
+        long[] accepted = new long[writers];
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads.add(Thread.ofPlatform().start(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < batches; i++) {
+                    // Muchos videos con pocos latidos cada uno: a menudo quedan inactivos entre volcados
+                    long videoId = 1 + (writer * 31L + i) % 50;
+                    accepted[writer] += service.recordHeartbeats(EMAIL, List.of(heartbeat(videoId, i % 600)));
+                }
+            }));
+        }
+
+        start.countDown();
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            service.flush();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        service.flush();
+
+        long total = 0;
+        for (long count : accepted) {
+            total += count;
+        }
+        assertEquals((long) writers * batches, total);
+        assertEquals(total, saved.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}